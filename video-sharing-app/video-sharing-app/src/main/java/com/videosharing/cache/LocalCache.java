@@ -0,0 +1,126 @@
+package com.videosharing.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Size-bounded, time-limited in-process {@link org.springframework.cache.Cache}.
+ *
+ * Entries live in an access-ordered LinkedHashMap, so the least recently read
+ * entry is dropped once {@code maxSize} is exceeded, and every entry expires
+ * {@code ttlMillis} after it was written regardless of how hot it is. The TTL
+ * is what bounds staleness for changes that bypass explicit eviction (bulk
+ * counter UPDATEs, other nodes); eviction handles the rest.
+ */
+public class LocalCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final long ttlMillis;
+    private final LinkedHashMap<Object, Entry> entries;
+
+    public LocalCache(String name, int maxSize, long ttlMillis) {
+        super(false);
+        this.name = name;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        // Loaded outside the lock; two concurrent misses may both load, the last one wins
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(toStoreValue(value), System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        synchronized (entries) {
+            return entries.remove(key) != null;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.videosharing.config;
+
+import com.videosharing.cache.LocalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String VIDEOS = "videos";
+    public static final String USERS = "users";
+    public static final String IMAGE_NEWS = "imageNews";
+
+    @Value("${cache.videos.max-size:10000}")
+    private int videosMaxSize;
+
+    @Value("${cache.videos.ttl-seconds:60}")
+    private long videosTtlSeconds;
+
+    @Value("${cache.users.max-size:10000}")
+    private int usersMaxSize;
+
+    @Value("${cache.users.ttl-seconds:60}")
+    private long usersTtlSeconds;
+
+    @Value("${cache.image-news.max-size:5000}")
+    private int imageNewsMaxSize;
+
+    @Value("${cache.image-news.ttl-seconds:60}")
+    private long imageNewsTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(
+                cache(VIDEOS, videosMaxSize, videosTtlSeconds),
+                cache(USERS, usersMaxSize, usersTtlSeconds),
+                cache(IMAGE_NEWS, imageNewsMaxSize, imageNewsTtlSeconds)));
+        return manager;
+    }
+
+    // Evictions issued inside a transaction are applied after commit: the entry goes away once the
+    // change is visible to other readers, and a rolled back change leaves the cache alone
+    private static Cache cache(String name, int maxSize, long ttlSeconds) {
+        return new TransactionAwareCacheDecorator(new LocalCache(name, maxSize, ttlSeconds * 1000));
+    }
+}
@@ -1,9 +1,11 @@
 package com.videosharing.config;
 
 import com.videosharing.model.entity.User;
-import com.videosharing.repository.UserRepository;
+import com.videosharing.service.EntityCacheService;
+import com.videosharing.util.JwtClaims;
 import com.videosharing.util.JwtUtil;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +19,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Authenticates "Bearer" requests from the access token alone: the token is
+ * parsed and verified once, and the user it names is looked up by the
+ * {@code userId} claim in the bounded, TTL-limited users cache (see
+ * {@link CacheConfig}). Blocking, unblocking, deleting or activating a user
+ * evicts that entry, so those changes apply on the next request; a role
+ * change applies once the entry expires. Each request gets its own copy of the
+ * cached user as principal.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -24,7 +35,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepository;
+    private EntityCacheService entityCacheService;
 
     @Override
     protected void doFilterInternal(
@@ -33,29 +44,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        System.out.println("JWT FILTER: Header: " + authHeader);
 
-        String token = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                email = jwtUtil.getEmailFromToken(token);
-                System.out.println("JWT FILTER: Email extracted: " + email);
-            } catch (Exception e) {
-                System.out.println("JWT FILTER: Token extraction failed: " + e.getMessage());
-            }
-        }
-
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            User user = userRepository.findByEmail(email).orElse(null);
-            System.out.println("JWT FILTER: User found in DB: " + (user != null));
-
-            if (user != null && jwtUtil.validateToken(token)) {
-                System.out.println("JWT FILTER: Token VALID. Setting Auth for user: " + user.getEmail() + " (Role: "
-                        + user.getRole() + ")");
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            User cached = resolveUser(authHeader.substring(7));
+            if (cached != null) {
+                // The cached entry is shared by every request; a controller mutating the principal must not change it
+                User user = new User(cached);
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         user,
                         null,
@@ -65,14 +60,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-            } else {
-                if (user == null)
-                    System.out.println("JWT FILTER: USER NOT FOUND in DB for email: " + email);
-                if (!jwtUtil.validateToken(token))
-                    System.out.println("JWT FILTER: Token VALIDATION FAILED (Expired or Malformed)");
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    // The cached user, or null when the token is invalid or no longer matches an active user
+    private User resolveUser(String token) {
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parseAndValidate(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            System.out.println("JWT FILTER: Token VALIDATION FAILED: " + e.getMessage());
+            return null;
+        }
+        if (claims.getType() != JwtClaims.Type.ACCESS) {
+            System.out.println("JWT FILTER: Refresh token used as access token");
+            return null;
+        }
+
+        User user;
+        try {
+            user = entityCacheService.getUser(claims.getUserId());
+        } catch (RuntimeException e) {
+            System.out.println("JWT FILTER: USER NOT FOUND for id: " + claims.getUserId());
+            return null;
+        }
+
+        // Tokens outlive account changes: refuse blocked users and tokens issued for another role or email
+        if (!user.isEnabled() || user.getRole() != claims.getRole() || !user.getEmail().equals(claims.getEmail())) {
+            System.out.println("JWT FILTER: Token no longer matches user " + claims.getUserId());
+            return null;
+        }
+        return user;
+    }
 }
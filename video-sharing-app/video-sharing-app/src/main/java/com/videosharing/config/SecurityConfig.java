@@ -1,6 +1,7 @@
 package com.videosharing.config;
 
 //import com.videosharing.util.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,6 +11,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,6 +20,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
@@ -29,9 +32,14 @@ public class SecurityConfig {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
 
+    // New hashes are "{bcrypt}"-prefixed at the configured cost; hashes stored before the prefix still
+    // match, and upgradeEncoding() flags them (and any lower-cost hash) for rehash on the next login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength));
+        return encoder;
     }
 
     @Bean
@@ -66,11 +74,15 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         // Allow public access to read videos
                         .requestMatchers(HttpMethod.GET, "/api/videos/feed").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/videos/feed/cursor").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/videos/trending").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/videos/{videoId}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/videos/{videoId}/stream").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/videos/{videoId}/thumbnail").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/videos/{videoId}/hls/**").permitAll()
                         // Allow public access to image news
                         .requestMatchers(HttpMethod.GET, "/api/image-news/feed").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/image-news/feed/cursor").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/image-news/{id}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/image-news/{id}/image/{index}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/users/profile-picture-proxy").permitAll()
@@ -1,6 +1,6 @@
 package com.videosharing.controller;
 
-import com.videosharing.model.entity.Video;
+import com.videosharing.model.dto.VideoDto;
 import com.videosharing.model.entity.User;
 import com.videosharing.service.AdminService;
 import com.videosharing.service.VideoService;
@@ -26,9 +26,12 @@ public class AdminController {
     @Autowired
     private com.videosharing.service.ImageNewsService imageNewsService;
 
+    @Autowired
+    private com.videosharing.service.PasswordHashingService passwordHashingService;
+
     @GetMapping("/pending-videos")
-    public ResponseEntity<List<Video>> getPendingVideos() {
-        List<Video> videos = videoService.getPendingVideos();
+    public ResponseEntity<List<VideoDto>> getPendingVideos() {
+        List<VideoDto> videos = videoService.getPendingVideos().stream().map(VideoDto::forAdmin).toList();
         return ResponseEntity.ok(videos);
     }
 
@@ -116,11 +119,16 @@ public class AdminController {
     }
 
     @GetMapping("/videos/search")
-    public ResponseEntity<org.springframework.data.domain.Page<Video>> adminSearchVideos(
+    public ResponseEntity<org.springframework.data.domain.Page<VideoDto>> adminSearchVideos(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         org.springframework.data.domain.Pageable pageable = org.springframework.data.domain.PageRequest.of(page, size, org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC, "createdAt"));
-        return ResponseEntity.ok(adminService.adminSearchVideos(q, pageable));
+        return ResponseEntity.ok(adminService.adminSearchVideos(q, pageable).map(VideoDto::forAdmin));
+    }
+
+    @GetMapping("/metrics/password-hashing")
+    public ResponseEntity<java.util.Map<String, Object>> passwordHashingMetrics() {
+        return ResponseEntity.ok(passwordHashingService.getMetrics());
     }
 }
@@ -4,9 +4,12 @@ import com.videosharing.model.dto.AuthRequest;
 import com.videosharing.model.dto.RegisterRequest;
 import com.videosharing.model.dto.AuthResponse;
 import com.videosharing.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Map;
 
@@ -20,40 +23,87 @@ public class AuthController {
 
     // ================= REGISTER (SEND OTP) =================
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
-        authService.register(registerRequest);
+    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest, HttpServletRequest httpRequest) {
+        // Client address as resolved from X-Forwarded-For by server.forward-headers-strategy; the per-IP
+        // OTP limits would otherwise key on the edge proxy and throttle everyone together
+        try {
+            authService.register(registerRequest, httpRequest.getRemoteAddr());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("message", e.getReason()));
+        }
+        return ResponseEntity.ok(Map.of("message", "OTP sent to your email"));
+    }
+
+    @PostMapping("/resend-otp")
+    public ResponseEntity<?> resendOtp(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
+        String email = request.get("email");
+        if (email == null || email.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "email is required"));
+        }
+        try {
+            authService.resendOtp(email, httpRequest.getRemoteAddr());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("message", e.getReason()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
         return ResponseEntity.ok(Map.of("message", "OTP sent to your email"));
     }
 
     @PostMapping("/register-admin")
     public ResponseEntity<?> registerAdmin(@RequestBody RegisterRequest registerRequest) {
-        authService.createAdmin(registerRequest);
+        try {
+            authService.createAdmin(registerRequest);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("message", e.getReason()));
+        }
         return ResponseEntity.ok(Map.of("message", "Admin created successfully"));
     }
 
     // ================= VERIFY OTP =================
     @PostMapping("/verify")
-    public ResponseEntity<AuthResponse> verifyOtp(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         String otp = request.get("otp");
+        if (email == null || otp == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "email and otp are required"));
+        }
 
-        AuthResponse response = authService.verifyOtp(email, otp);
-        return ResponseEntity.ok(response);
+        try {
+            AuthResponse response = authService.verifyOtp(email, otp, httpRequest.getRemoteAddr());
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("message", e.getReason()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
     }
 
     // ================= LOGIN =================
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) {
-        AuthResponse response = authService.login(authRequest);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
+        try {
+            AuthResponse response = authService.login(authRequest);
+            return ResponseEntity.ok(response);
+        } catch (ResponseStatusException e) {
+            // Password hashing pool saturated
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("message", e.getReason()));
+        }
     }
 
     // ================= REFRESH TOKEN =================
     @PostMapping("/refresh")
-    public ResponseEntity<AuthResponse> refresh(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
         String refreshToken = request.get("refreshToken");
-        AuthResponse response = authService.refreshToken(refreshToken);
-        return ResponseEntity.ok(response);
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "refreshToken is required"));
+        }
+        try {
+            return ResponseEntity.ok(authService.refreshToken(refreshToken));
+        } catch (RuntimeException e) {
+            // Client must log in again
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
     }
 
     // ================= LOGOUT =================
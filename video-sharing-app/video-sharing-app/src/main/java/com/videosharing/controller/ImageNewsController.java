@@ -1,5 +1,6 @@
 package com.videosharing.controller;
 
+import com.videosharing.model.dto.ImageNewsDirectUploadRequest;
 import com.videosharing.model.entity.ImageNews;
 import com.videosharing.service.AuthService;
 import com.videosharing.service.ImageNewsService;
@@ -27,6 +28,9 @@ public class ImageNewsController {
     @Autowired
     private AuthService authService;
 
+    @org.springframework.beans.factory.annotation.Value("${storage.presign.redirect-downloads:false}")
+    private boolean redirectDownloads;
+
     @PostMapping(value = "/upload", consumes = "multipart/form-data")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<ImageNews> uploadImageNews(
@@ -41,6 +45,31 @@ public class ImageNewsController {
         return ResponseEntity.ok(news);
     }
 
+    // Direct-to-R2 upload: init returns presigned PUT URLs, complete creates the ImageNews row
+    @PostMapping("/direct-upload")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<?> initDirectUpload(@RequestBody ImageNewsDirectUploadRequest request) {
+        Long userId = authService.getCurrentUser().getId();
+        try {
+            return ResponseEntity.ok(imageNewsService.createDirectUploadTargets(userId, request.getContentTypes()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/direct-upload/complete")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<?> completeDirectUpload(@RequestBody ImageNewsDirectUploadRequest request) {
+        Long userId = authService.getCurrentUser().getId();
+        try {
+            ImageNews news = imageNewsService.registerUploadedImageNews(userId, request.getTitle(),
+                    request.getDescription(), request.getLocation(), request.getTags(), request.getObjectKeys());
+            return ResponseEntity.ok(news);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/feed")
     public ResponseEntity<Page<ImageNews>> getFeed(
             @RequestParam(defaultValue = "0") int page,
@@ -52,6 +81,19 @@ public class ImageNewsController {
         return ResponseEntity.ok(news);
     }
 
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<?> getFeedPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String location) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, 50));
+            return ResponseEntity.ok(imageNewsService.getFeedAfter(cursor, pageSize, location));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ImageNews> getImageNews(@PathVariable Long id) {
         return ResponseEntity.ok(imageNewsService.getImageNewsById(id));
@@ -73,6 +115,12 @@ public class ImageNewsController {
             return ResponseEntity.notFound().build();
         }
 
+        if (redirectDownloads) {
+            return ResponseEntity.status(org.springframework.http.HttpStatus.FOUND)
+                    .location(java.net.URI.create(imageNewsService.getImageDownloadUrl(urls[index])))
+                    .build();
+        }
+
         // Use cloudStorageService to get the stream
         java.io.InputStream imageStream = imageNewsService.getImageStream(urls[index]);
         if (imageStream == null) {
@@ -0,0 +1,117 @@
+package com.videosharing.controller;
+
+import com.videosharing.model.dto.ResumableUploadInitRequest;
+import com.videosharing.model.dto.ResumableUploadStatus;
+import com.videosharing.model.entity.Video;
+import com.videosharing.service.AuthService;
+import com.videosharing.service.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Resumable upload protocol:
+ * POST /api/videos/uploads (init) -> PUT /{uploadId}/chunks?offset=N (raw bytes, repeatable)
+ * -> GET /{uploadId} (missing chunks) -> POST /{uploadId}/complete.
+ * Direct mode: POST /direct returns presigned part URLs, the client PUTs chunks to R2
+ * itself and then calls POST /{uploadId}/complete-direct with the part ETags.
+ */
+@RestController
+@RequestMapping("/api/videos/uploads")
+@CrossOrigin(origins = "http://localhost:4200")
+@PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+public class ResumableUploadController {
+
+    @Autowired
+    private ResumableUploadService resumableUploadService;
+
+    @Autowired
+    private AuthService authService;
+
+    @PostMapping
+    public ResponseEntity<?> initUpload(@RequestBody ResumableUploadInitRequest request) {
+        Long userId = authService.getCurrentUser().getId();
+        try {
+            return ResponseEntity.ok(resumableUploadService.initUpload(userId, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/direct")
+    public ResponseEntity<?> initDirectUpload(@RequestBody ResumableUploadInitRequest request) {
+        Long userId = authService.getCurrentUser().getId();
+        try {
+            return ResponseEntity.ok(resumableUploadService.initDirectUpload(userId, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete-direct")
+    public ResponseEntity<?> completeDirectUpload(@PathVariable String uploadId,
+            @RequestBody Map<Integer, String> partETags) {
+        Long userId = authService.getCurrentUser().getId();
+        try {
+            Video video = resumableUploadService.completeDirectUpload(userId, uploadId, partETags);
+            return ResponseEntity.ok(video);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{uploadId}/chunks")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            HttpServletRequest servletRequest) throws IOException {
+        Long userId = authService.getCurrentUser().getId();
+        long size = servletRequest.getContentLengthLong();
+        if (size < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED).build();
+        }
+        try {
+            ResumableUploadStatus status = resumableUploadService.uploadChunk(userId, uploadId, offset,
+                    servletRequest.getInputStream(), size);
+            return ResponseEntity.ok(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ResumableUploadStatus> getStatus(@PathVariable String uploadId) {
+        Long userId = authService.getCurrentUser().getId();
+        return ResponseEntity.ok(resumableUploadService.getStatus(userId, uploadId));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String uploadId) {
+        Long userId = authService.getCurrentUser().getId();
+        try {
+            Video video = resumableUploadService.completeUpload(userId, uploadId);
+            return ResponseEntity.ok(video);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId) {
+        Long userId = authService.getCurrentUser().getId();
+        resumableUploadService.abortUpload(userId, uploadId);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.videosharing.controller;
 
+import com.videosharing.model.dto.FeedSlice;
+import com.videosharing.model.dto.VideoDto;
 import com.videosharing.model.dto.VideoUploadRequest;
 import com.videosharing.model.entity.Video;
 import com.videosharing.service.VideoService;
@@ -7,6 +9,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -26,6 +31,19 @@ public class VideoController {
     @Autowired
     private com.videosharing.service.AuthService authService;
 
+    @Autowired
+    private com.videosharing.service.TranscodingService transcodingService;
+
+    @Autowired
+    private com.videosharing.service.FeedCacheService feedCacheService;
+
+    @Autowired
+    private com.videosharing.service.TrendingService trendingService;
+
+    // When enabled, media endpoints redirect to short-lived presigned R2 URLs instead of proxying bytes
+    @org.springframework.beans.factory.annotation.Value("${storage.presign.redirect-downloads:false}")
+    private boolean redirectDownloads;
+
     @PostMapping(value = "/upload", consumes = "multipart/form-data")
     public ResponseEntity<Video> uploadVideo(
             @RequestParam(value = "videoFile", required = false) MultipartFile videoFile,
@@ -59,25 +77,100 @@ public class VideoController {
         }
     }
 
+    /**
+     * Raw-body upload: the video bytes are the request body (Content-Type video/*) and
+     * the metadata travels as query parameters, so nothing is spooled by the multipart
+     * resolver and parts go to R2 while the client is still sending.
+     */
+    @PostMapping(value = "/upload-stream", consumes = "video/*")
+    public ResponseEntity<Video> uploadVideoStream(
+            jakarta.servlet.http.HttpServletRequest servletRequest,
+            @RequestHeader(value = "X-File-Name", required = false, defaultValue = "video.mp4") String fileName,
+            @RequestParam("title") String title,
+            @RequestParam("description") String description,
+            @RequestParam("location") String location,
+            @RequestParam("tags") String tags,
+            @RequestParam("categories") String categories) throws IOException {
+
+        VideoUploadRequest request = new VideoUploadRequest();
+        request.setTitle(title);
+        request.setDescription(description);
+        request.setCategories(categories);
+        request.setLocation(location);
+        request.setTags(tags);
+
+        Long userId = authService.getCurrentUser().getId();
+
+        try {
+            Video video = videoService.uploadVideoStream(userId, request, servletRequest.getInputStream(),
+                    servletRequest.getContentType(), fileName);
+            return ResponseEntity.ok(video);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
     @GetMapping("/feed")
-    public ResponseEntity<Page<Video>> getVideoFeed(
+    public ResponseEntity<?> getVideoFeed(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String location) {
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String tag) {
 
         Pageable pageable = PageRequest.of(page, size, org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC, "createdAt"));
-        Page<Video> videos = videoService.getFeed(pageable, category, location);
+
+        // Hot pages are served as pre-serialized JSON straight from memory
+        if (feedCacheService.isCacheable(page, size)) {
+            String key = "videos|" + page + "|" + size + "|" + com.videosharing.model.entity.VideoLabel.normalizeKey(category)
+                    + "|" + com.videosharing.model.entity.VideoLabel.normalizeKey(location)
+                    + "|" + com.videosharing.model.entity.VideoLabel.normalizeKey(tag);
+            byte[] json = feedCacheService.get(key,
+                    () -> videoService.getFeed(pageable, category, location, tag).map(VideoDto::from));
+            return ResponseEntity.ok()
+                    .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                    .body(json);
+        }
+
+        Page<VideoDto> videos = videoService.getFeed(pageable, category, location, tag).map(VideoDto::from);
         return ResponseEntity.ok(videos);
     }
 
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<?> getVideoFeedPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String tag) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, 50));
+            FeedSlice<Video> slice = videoService.getFeedAfter(cursor, pageSize, category, location, tag);
+            List<VideoDto> items = slice.getItems().stream().map(VideoDto::from).toList();
+            return ResponseEntity.ok(new FeedSlice<>(items, slice.getNextCursor(), slice.isHasNext()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(java.util.Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<Page<VideoDto>> getTrending(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, 50)));
+        return ResponseEntity.ok(trendingService.getTrending(pageable).map(VideoDto::from));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Page<Video>> searchVideos(
+    public ResponseEntity<Page<VideoDto>> searchVideos(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size); // Can add sort by relevance or date if needed
-        Page<Video> videos = videoService.search(q, pageable);
+        Page<VideoDto> videos = videoService.search(q, pageable).map(VideoDto::from);
         return ResponseEntity.ok(videos);
     }
 
@@ -88,15 +181,22 @@ public class VideoController {
     }
 
     @GetMapping("/{videoId}")
-    public ResponseEntity<Video> getVideo(@PathVariable Long videoId) {
+    public ResponseEntity<VideoDto> getVideo(@PathVariable Long videoId) {
         Video video = videoService.getVideoById(videoId);
-        return ResponseEntity.ok(video);
+        return ResponseEntity.ok(VideoDto.from(video));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<List<Video>> getUserVideos(@PathVariable Long userId) {
-        List<Video> videos = videoService.getUserVideos(userId);
+    public ResponseEntity<List<VideoDto>> getUserVideos(@PathVariable Long userId) {
+        com.videosharing.model.entity.User viewer = authService.getCurrentUser();
+        java.util.function.Function<Video, VideoDto> mapper = VideoDto::from;
+        if (viewer != null && viewer.getRole() == com.videosharing.model.entity.Role.ADMIN) {
+            mapper = VideoDto::forAdmin;
+        } else if (viewer != null && viewer.getId().equals(userId)) {
+            mapper = VideoDto::forOwner;
+        }
+        List<VideoDto> videos = videoService.getUserVideos(userId).stream().map(mapper).toList();
         return ResponseEntity.ok(videos);
     }
 
@@ -127,22 +227,125 @@ public class VideoController {
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping("/{videoId}/reaction")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<?> getMyReaction(@PathVariable Long videoId) {
+        Long userId = authService.getCurrentUser().getId();
+        return ResponseEntity.ok(java.util.Map.of("reaction", videoService.getUserReaction(userId, videoId)));
+    }
+
     @GetMapping("/{videoId}/stream")
-    public ResponseEntity<org.springframework.core.io.InputStreamResource> streamVideo(@PathVariable Long videoId) {
-        java.io.InputStream videoStream = videoService.getVideoStream(videoId);
-        return ResponseEntity.ok()
+    public ResponseEntity<org.springframework.core.io.InputStreamResource> streamVideo(
+            @PathVariable Long videoId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader) {
+        if (redirectDownloads) {
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(java.net.URI.create(videoService.getVideoDownloadUrl(videoId)))
+                    .build();
+        }
+
+        long length = videoService.getVideoLength(videoId);
+
+        // RFC 9110: a Range header we can't parse or don't support (multiple ranges; players never ask for
+        // multipart/byteranges) is ignored and the whole video is served
+        List<HttpRange> ranges = null;
+        if (rangeHeader != null && !rangeHeader.isBlank()) {
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = null;
+            }
+        }
+        if (ranges == null || ranges.size() != 1) {
+            java.io.InputStream videoStream = videoService.getVideoStream(videoId);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(org.springframework.http.MediaType.parseMediaType("video/mp4"))
+                    .contentLength(length)
+                    .body(new org.springframework.core.io.InputStreamResource(videoStream));
+        }
+
+        // 416 only for a single well-formed range that lies outside the video
+        long start;
+        long end;
+        try {
+            start = ranges.get(0).getRangeStart(length);
+            end = ranges.get(0).getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return rangeNotSatisfiable(length);
+        }
+        // HttpRange doesn't reject a first position past the end ("bytes=5000-" on a 1000 byte video)
+        if (start >= length || start > end) {
+            return rangeNotSatisfiable(length);
+        }
+
+        java.io.InputStream videoStream = videoService.getVideoStream(videoId, start, end);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
                 .contentType(org.springframework.http.MediaType.parseMediaType("video/mp4"))
+                .contentLength(end - start + 1)
                 .body(new org.springframework.core.io.InputStreamResource(videoStream));
     }
 
+    private ResponseEntity<org.springframework.core.io.InputStreamResource> rangeNotSatisfiable(long length) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                .build();
+    }
+
     @GetMapping("/{videoId}/thumbnail")
-    public ResponseEntity<org.springframework.core.io.InputStreamResource> getThumbnail(@PathVariable Long videoId) {
-        java.io.InputStream thumbStream = videoService.getThumbnailStream(videoId);
+    public ResponseEntity<org.springframework.core.io.InputStreamResource> getThumbnail(@PathVariable Long videoId,
+            @RequestParam(value = "w", required = false) Integer width) {
+        if (redirectDownloads) {
+            String location = videoService.getThumbnailDownloadUrl(videoId);
+            if (location == null) {
+                // Not generated yet
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(java.net.URI.create(location))
+                    .build();
+        }
+        java.io.InputStream thumbStream = videoService.getThumbnailStream(videoId, width);
         return ResponseEntity.ok()
+                .cacheControl(org.springframework.http.CacheControl.maxAge(java.time.Duration.ofHours(1)).cachePublic())
                 .contentType(org.springframework.http.MediaType.IMAGE_JPEG)
                 .body(new org.springframework.core.io.InputStreamResource(thumbStream));
     }
 
+    // HLS playlists and segments, e.g. /hls/master.m3u8 or /hls/720p/seg_0001.ts
+    @GetMapping("/{videoId}/hls/{*path}")
+    public ResponseEntity<org.springframework.core.io.InputStreamResource> getHlsResource(@PathVariable Long videoId,
+            @PathVariable String path) {
+        String relative = path.startsWith("/") ? path.substring(1) : path;
+        Video video = videoService.getVideoById(videoId);
+        if (video.getTranscodeStatus() != Video.TranscodeStatus.READY) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            if (redirectDownloads && !relative.endsWith(".m3u8")) {
+                return ResponseEntity.status(HttpStatus.FOUND)
+                        .location(java.net.URI.create(transcodingService.getHlsDownloadUrl(videoId, relative)))
+                        .build();
+            }
+            java.io.InputStream stream = transcodingService.getHlsStream(videoId, relative);
+            boolean playlist = relative.endsWith(".m3u8");
+            return ResponseEntity.ok()
+                    // Segments never change once written; playlists only change if the video is re-transcoded
+                    .cacheControl(playlist
+                            ? org.springframework.http.CacheControl.maxAge(java.time.Duration.ofMinutes(5)).cachePublic()
+                            : org.springframework.http.CacheControl.maxAge(java.time.Duration.ofDays(7)).cachePublic())
+                    .contentType(org.springframework.http.MediaType.parseMediaType(
+                            playlist ? "application/vnd.apple.mpegurl" : "video/mp2t"))
+                    .body(new org.springframework.core.io.InputStreamResource(stream));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // --- Interactions --- //
 
     @PostMapping("/{videoId}/comments")
@@ -0,0 +1,89 @@
+package com.videosharing.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free in-memory accumulator of counter deltas per entity id. Each id owns
+ * one {@link LongAdder} per counter slot, so concurrent clicks on the same hot
+ * id spread over striped cells instead of contending on one row or lock.
+ *
+ * {@link #drain()} hands back everything accumulated since the previous drain and
+ * forgets the ids, so memory only holds ids touched within one flush interval.
+ */
+public class CounterBuffer {
+
+    private final int slots;
+    private final ConcurrentHashMap<Long, Deltas> pending = new ConcurrentHashMap<>();
+
+    public CounterBuffer(int slots) {
+        this.slots = slots;
+    }
+
+    public void add(Long id, int slot, long delta) {
+        while (true) {
+            Deltas deltas = pending.computeIfAbsent(id, k -> new Deltas(slots));
+            // Announce the write before checking for retirement; drain() checks in the
+            // opposite order, so one side always sees the other (Dekker-style handshake)
+            deltas.writers.incrementAndGet();
+            if (deltas.retired) {
+                deltas.writers.decrementAndGet();
+                continue; // drained concurrently; retry against a fresh entry
+            }
+            deltas.counters[slot].add(delta);
+            deltas.writers.decrementAndGet();
+            return;
+        }
+    }
+
+    /** Removes and returns all non-zero deltas, keyed by id. */
+    public Map<Long, long[]> drain() {
+        Map<Long, long[]> drained = new HashMap<>();
+        for (Map.Entry<Long, Deltas> entry : pending.entrySet()) {
+            Deltas deltas = entry.getValue();
+            deltas.retired = true;
+            pending.remove(entry.getKey(), deltas);
+            while (deltas.writers.get() != 0) {
+                Thread.onSpinWait();
+            }
+
+            long[] values = new long[slots];
+            boolean any = false;
+            for (int i = 0; i < slots; i++) {
+                values[i] = deltas.counters[i].sum();
+                any |= values[i] != 0;
+            }
+            if (any) {
+                drained.put(entry.getKey(), values);
+            }
+        }
+        return drained;
+    }
+
+    /** Puts deltas back, e.g. after a failed flush, so they are retried next time. */
+    public void restore(Map<Long, long[]> deltas) {
+        deltas.forEach((id, values) -> {
+            for (int i = 0; i < slots; i++) {
+                if (values[i] != 0) {
+                    add(id, i, values[i]);
+                }
+            }
+        });
+    }
+
+    private static final class Deltas {
+        final LongAdder[] counters;
+        final AtomicInteger writers = new AtomicInteger();
+        volatile boolean retired;
+
+        Deltas(int slots) {
+            counters = new LongAdder[slots];
+            for (int i = 0; i < slots; i++) {
+                counters[i] = new LongAdder();
+            }
+        }
+    }
+}
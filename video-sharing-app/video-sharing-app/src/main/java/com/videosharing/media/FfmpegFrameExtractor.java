@@ -0,0 +1,45 @@
+package com.videosharing.media;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * {@link FrameExtractor} backed by a local ffmpeg binary. ffmpeg seeks over HTTP
+ * with range requests, so only the part of the file around the frame is read.
+ */
+@Component
+public class FfmpegFrameExtractor implements FrameExtractor {
+
+    @Autowired
+    private FfmpegRunner ffmpegRunner;
+
+    @Value("${media.ffmpeg.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    @Override
+    public BufferedImage extractFrame(String sourceUrl, double atSeconds) throws IOException {
+        Path output = Files.createTempFile("frame-", ".png");
+        try {
+            ffmpegRunner.run(List.of("-y",
+                    "-ss", String.valueOf(atSeconds),
+                    "-i", sourceUrl,
+                    "-frames:v", "1",
+                    "-f", "image2", "-vcodec", "png",
+                    output.toString()), timeoutSeconds);
+            if (Files.size(output) == 0) {
+                return null;
+            }
+            return ImageIO.read(output.toFile());
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+}
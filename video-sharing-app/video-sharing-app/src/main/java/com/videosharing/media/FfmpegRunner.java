@@ -0,0 +1,64 @@
+package com.videosharing.media;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the configured ffmpeg binary with a hard timeout and surfaces its output
+ * in the exception when it fails. On Unix-like hosts the process runs under
+ * {@code nice}, so the OS scheduler favours the JVM's request threads over it.
+ */
+@Component
+public class FfmpegRunner {
+
+    @Value("${media.ffmpeg.path:ffmpeg}")
+    private String ffmpegPath;
+
+    // nice(1) increment for ffmpeg processes; 0 disables
+    @Value("${media.ffmpeg.nice:10}")
+    private int niceness;
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+
+    public void run(List<String> args, long timeoutSeconds) throws IOException {
+        List<String> command = new ArrayList<>(args.size() + 7);
+        if (niceness > 0 && !WINDOWS) {
+            command.add("nice");
+            command.add("-n");
+            command.add(String.valueOf(niceness));
+        }
+        command.add(ffmpegPath);
+        command.add("-hide_banner");
+        command.add("-loglevel");
+        command.add("error");
+        command.addAll(args);
+
+        Path log = Files.createTempFile("ffmpeg-", ".log");
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("ffmpeg timed out after " + timeoutSeconds + "s");
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("ffmpeg exited with code " + process.exitValue() + ": "
+                        + Files.readString(log).trim());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running ffmpeg", e);
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.videosharing.media;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Pulls a single still frame out of a video. Implementations receive a URL the
+ * video can be read from (typically a presigned R2 GET), so they only fetch the
+ * bytes they actually need.
+ */
+public interface FrameExtractor {
+
+    /**
+     * @return the decoded frame, or {@code null} if the video has no frame at that position
+     */
+    BufferedImage extractFrame(String sourceUrl, double atSeconds) throws IOException;
+}
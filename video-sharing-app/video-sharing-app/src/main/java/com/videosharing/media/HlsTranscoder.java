@@ -0,0 +1,90 @@
+package com.videosharing.media;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transcodes a video into an HLS ladder with ffmpeg. Every rendition is written
+ * to {@code <outputDir>/<height>p/} as {@code index.m3u8} plus fixed-length
+ * segments, and {@code <outputDir>/master.m3u8} lists the renditions.
+ */
+@Component
+public class HlsTranscoder {
+
+    public static final String MASTER_PLAYLIST = "master.m3u8";
+
+    private static final int AUDIO_KBPS = 128;
+
+    @Autowired
+    private FfmpegRunner ffmpegRunner;
+
+    // height:videoKbps pairs, lowest first
+    @Value("${media.hls.renditions:360:800,720:2800,1080:5000}")
+    private String[] renditionSpecs;
+
+    @Value("${media.hls.segment-seconds:6}")
+    private int segmentSeconds;
+
+    @Value("${media.hls.timeout-minutes:60}")
+    private long timeoutMinutes;
+
+    // Encoder threads per ffmpeg run; libx264 otherwise uses every core
+    @Value("${media.hls.threads:2}")
+    private int threads;
+
+    private final List<int[]> renditions = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (String spec : renditionSpecs) {
+            String[] parts = spec.trim().split(":");
+            renditions.add(new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) });
+        }
+    }
+
+    // source is a local file: every rendition re-reads it, possibly for longer than a presigned URL lives
+    public void transcode(Path source, Path outputDir) throws IOException {
+        StringBuilder master = new StringBuilder("#EXTM3U\n#EXT-X-VERSION:3\n");
+
+        // One ffmpeg run per rendition: costs extra decodes, but unlike a single
+        // var_stream_map run it also works for sources without an audio track
+        for (int[] rendition : renditions) {
+            int height = rendition[0];
+            int videoKbps = rendition[1];
+            String name = height + "p";
+            Path dir = Files.createDirectories(outputDir.resolve(name));
+
+            ffmpegRunner.run(List.of("-y",
+                    "-i", source.toString(),
+                    "-map", "0:v:0", "-map", "0:a:0?",
+                    "-vf", "scale=-2:" + height,
+                    "-c:v", "libx264", "-preset", "veryfast", "-profile:v", "main",
+                    "-b:v", videoKbps + "k",
+                    "-maxrate", (videoKbps * 107 / 100) + "k",
+                    "-bufsize", (videoKbps * 3 / 2) + "k",
+                    // Keyframe at every segment boundary so renditions switch cleanly
+                    "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")",
+                    "-sc_threshold", "0",
+                    "-c:a", "aac", "-b:a", AUDIO_KBPS + "k", "-ac", "2",
+                    "-threads", String.valueOf(threads),
+                    "-f", "hls",
+                    "-hls_time", String.valueOf(segmentSeconds),
+                    "-hls_playlist_type", "vod",
+                    "-hls_segment_filename", dir.resolve("seg_%04d.ts").toString(),
+                    dir.resolve("index.m3u8").toString()), timeoutMinutes * 60);
+
+            master.append("#EXT-X-STREAM-INF:BANDWIDTH=").append((videoKbps + AUDIO_KBPS) * 1000)
+                    .append('\n').append(name).append("/index.m3u8\n");
+        }
+
+        Files.writeString(outputDir.resolve(MASTER_PLAYLIST), master.toString());
+    }
+}
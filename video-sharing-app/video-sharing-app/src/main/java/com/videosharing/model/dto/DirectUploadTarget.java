@@ -0,0 +1,20 @@
+package com.videosharing.model.dto;
+
+public class DirectUploadTarget {
+
+    private String objectKey;
+    private String uploadUrl;
+
+    public DirectUploadTarget() {}
+
+    public DirectUploadTarget(String objectKey, String uploadUrl) {
+        this.objectKey = objectKey;
+        this.uploadUrl = uploadUrl;
+    }
+
+    public String getObjectKey() { return objectKey; }
+    public void setObjectKey(String objectKey) { this.objectKey = objectKey; }
+
+    public String getUploadUrl() { return uploadUrl; }
+    public void setUploadUrl(String uploadUrl) { this.uploadUrl = uploadUrl; }
+}
@@ -0,0 +1,28 @@
+package com.videosharing.model.dto;
+
+import java.util.List;
+
+// One page of a cursor-paginated feed; pass nextCursor back to get the following page
+public class FeedSlice<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public FeedSlice() {}
+
+    public FeedSlice(List<T> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+}
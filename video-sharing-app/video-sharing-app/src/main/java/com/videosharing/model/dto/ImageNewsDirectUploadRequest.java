@@ -0,0 +1,33 @@
+package com.videosharing.model.dto;
+
+import java.util.List;
+
+public class ImageNewsDirectUploadRequest {
+
+    private String title;
+    private String description;
+    private String location;
+    private String tags;
+    // Init: one content type per image to upload
+    private List<String> contentTypes;
+    // Complete: keys returned by init, after the client has PUT the images
+    private List<String> objectKeys;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public String getTags() { return tags; }
+    public void setTags(String tags) { this.tags = tags; }
+
+    public List<String> getContentTypes() { return contentTypes; }
+    public void setContentTypes(List<String> contentTypes) { this.contentTypes = contentTypes; }
+
+    public List<String> getObjectKeys() { return objectKeys; }
+    public void setObjectKeys(List<String> objectKeys) { this.objectKeys = objectKeys; }
+}
@@ -0,0 +1,17 @@
+package com.videosharing.model.dto;
+
+public class ResumableUploadInitRequest extends VideoUploadRequest {
+
+    private String fileName;
+    private String contentType;
+    private Long totalSize;
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+}
@@ -0,0 +1,43 @@
+package com.videosharing.model.dto;
+
+import java.util.List;
+
+public class ResumableUploadStatus {
+
+    private String uploadId;
+    private String status;
+    private Long totalSize;
+    private Integer chunkSize;
+    private Integer totalChunks;
+    // Zero-based indexes of chunks the server still needs
+    private List<Integer> missingChunks;
+    private Long videoId;
+    // Direct-to-R2 mode only: presigned PUT URL per chunk, same order as the chunks
+    private List<String> partUploadUrls;
+
+    public ResumableUploadStatus() {}
+
+    public String getUploadId() { return uploadId; }
+    public void setUploadId(String uploadId) { this.uploadId = uploadId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public Integer getTotalChunks() { return totalChunks; }
+    public void setTotalChunks(Integer totalChunks) { this.totalChunks = totalChunks; }
+
+    public List<Integer> getMissingChunks() { return missingChunks; }
+    public void setMissingChunks(List<Integer> missingChunks) { this.missingChunks = missingChunks; }
+
+    public Long getVideoId() { return videoId; }
+    public void setVideoId(Long videoId) { this.videoId = videoId; }
+
+    public List<String> getPartUploadUrls() { return partUploadUrls; }
+    public void setPartUploadUrls(List<String> partUploadUrls) { this.partUploadUrls = partUploadUrls; }
+}
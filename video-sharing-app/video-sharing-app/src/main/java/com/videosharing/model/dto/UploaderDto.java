@@ -0,0 +1,52 @@
+package com.videosharing.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.videosharing.model.entity.User;
+
+// Public face of a video's uploader; email is only filled in for admin views
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploaderDto {
+
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String profilePictureUrl;
+    private String email;
+
+    public UploaderDto() {}
+
+    public static UploaderDto from(User user, boolean includeEmail) {
+        if (user == null) {
+            return null;
+        }
+        UploaderDto dto = new UploaderDto();
+        dto.setId(user.getId());
+        dto.setUsername(user.getDisplayUsername());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setProfilePictureUrl(user.getProfilePictureUrl());
+        if (includeEmail) {
+            dto.setEmail(user.getEmail());
+        }
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getProfilePictureUrl() { return profilePictureUrl; }
+    public void setProfilePictureUrl(String profilePictureUrl) { this.profilePictureUrl = profilePictureUrl; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+}
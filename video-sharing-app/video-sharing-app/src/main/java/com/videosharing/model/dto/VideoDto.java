@@ -0,0 +1,136 @@
+package com.videosharing.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.videosharing.model.entity.Video;
+
+import java.time.LocalDateTime;
+
+/**
+ * What feed, search, detail and admin endpoints send for a video, instead of the
+ * entity itself: no lazy associations for Jackson to walk and no user
+ * internals. Field names match the entity so clients keep working.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VideoDto {
+
+    private Long id;
+    private String title;
+    private String description;
+    private String videoUrl;
+    private String thumbnailUrl;
+    private String hlsManifestUrl;
+    private String categories;
+    private String location;
+    private String tags;
+    private String status;
+    private String contentType;
+    private String rejectionReason;
+    private Integer likesCount;
+    private Integer dislikesCount;
+    private Long views;
+    private Integer shareCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private UploaderDto user;
+
+    public VideoDto() {}
+
+    public static VideoDto from(Video video) {
+        return from(video, false);
+    }
+
+    // Admin views additionally carry the rejection reason and the uploader's email
+    public static VideoDto forAdmin(Video video) {
+        return from(video, true);
+    }
+
+    // The uploader's own listing: public fields plus why a video was rejected
+    public static VideoDto forOwner(Video video) {
+        VideoDto dto = from(video, false);
+        dto.setRejectionReason(video.getRejectionReason());
+        return dto;
+    }
+
+    private static VideoDto from(Video video, boolean admin) {
+        VideoDto dto = new VideoDto();
+        dto.setId(video.getId());
+        dto.setTitle(video.getTitle());
+        dto.setDescription(video.getDescription());
+        dto.setVideoUrl(video.getVideoUrl());
+        dto.setThumbnailUrl(video.getThumbnailUrl());
+        dto.setHlsManifestUrl(video.getTranscodeStatus() == Video.TranscodeStatus.READY ? video.getHlsManifestUrl() : null);
+        dto.setCategories(video.getCategories());
+        dto.setLocation(video.getLocation());
+        dto.setTags(video.getTags());
+        dto.setStatus(video.getStatus() != null ? video.getStatus().name() : null);
+        dto.setContentType(video.getContentType() != null ? video.getContentType().name() : null);
+        dto.setLikesCount(video.getLikesCount());
+        dto.setDislikesCount(video.getDislikesCount());
+        dto.setViews(video.getViews());
+        dto.setShareCount(video.getShareCount());
+        dto.setCreatedAt(video.getCreatedAt());
+        dto.setExpiresAt(video.getExpiresAt());
+        dto.setUser(UploaderDto.from(video.getUser(), admin));
+        if (admin) {
+            dto.setRejectionReason(video.getRejectionReason());
+        }
+        return dto;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getVideoUrl() { return videoUrl; }
+    public void setVideoUrl(String videoUrl) { this.videoUrl = videoUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public String getHlsManifestUrl() { return hlsManifestUrl; }
+    public void setHlsManifestUrl(String hlsManifestUrl) { this.hlsManifestUrl = hlsManifestUrl; }
+
+    public String getCategories() { return categories; }
+    public void setCategories(String categories) { this.categories = categories; }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+
+    public String getTags() { return tags; }
+    public void setTags(String tags) { this.tags = tags; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getRejectionReason() { return rejectionReason; }
+    public void setRejectionReason(String rejectionReason) { this.rejectionReason = rejectionReason; }
+
+    public Integer getLikesCount() { return likesCount; }
+    public void setLikesCount(Integer likesCount) { this.likesCount = likesCount; }
+
+    public Integer getDislikesCount() { return dislikesCount; }
+    public void setDislikesCount(Integer dislikesCount) { this.dislikesCount = dislikesCount; }
+
+    public Long getViews() { return views; }
+    public void setViews(Long views) { this.views = views; }
+
+    public Integer getShareCount() { return shareCount; }
+    public void setShareCount(Integer shareCount) { this.shareCount = shareCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public UploaderDto getUser() { return user; }
+    public void setUser(UploaderDto user) { this.user = user; }
+}
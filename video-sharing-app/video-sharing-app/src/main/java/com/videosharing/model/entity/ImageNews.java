@@ -6,7 +6,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "image_news")
+@Table(name = "image_news", indexes = {
+        @Index(name = "idx_image_news_feed", columnList = "status, created_at, id"),
+        @Index(name = "idx_image_news_created", columnList = "created_at, id") })
 public class ImageNews {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,13 +40,14 @@ public class ImageNews {
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime expiresAt;
 
-    @Column(nullable = false)
+    // Only changed through relative UPDATEs (see CounterServiceImpl), never by entity saves
+    @Column(nullable = false, updatable = false)
     private Integer likesCount = 0;
 
-    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
     private Long views = 0L;
 
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private Integer shareCount = 0;
 
     public ImageNews() {
@@ -0,0 +1,120 @@
+package com.videosharing.model.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a mail that still has to be sent. Written in the same
+ * transaction as the change that triggers it, then delivered by
+ * EmailServiceImpl's background dispatcher; a row is deleted once the SMTP
+ * server accepts it and kept as FAILED after the last retry.
+ */
+@Entity
+@Table(name = "outbound_emails", indexes = {
+        @Index(name = "idx_outbound_emails_due", columnList = "status, next_attempt_at")
+})
+public class OutboundEmail {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        FAILED
+    }
+
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    // Set when a dispatcher claims the row; lets a crashed send be retried
+    private LocalDateTime lockedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public OutboundEmail() {
+    }
+
+    public OutboundEmail(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public void setLockedAt(LocalDateTime lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,10 +1,26 @@
 package com.videosharing.model.entity;
 
 import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
+/**
+ * One issued refresh token. Only the SHA-256 of the token is stored, so a
+ * leaked table can't be replayed. Every token issued by rotating another
+ * shares its family id; a revoked token presented again means the token was
+ * copied, and the whole family is revoked.
+ */
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_expiry", columnList = "expiry_date")
+})
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,8 +30,11 @@ public class RefreshToken {
     @JoinColumn(name = "user_id")
     private User user;
     
-    @Column(nullable = false, unique = true)
-    private String token;
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", length = 36)
+    private String familyId;
     
     private LocalDateTime expiryDate;
     private Boolean isRevoked = false;
@@ -23,12 +42,23 @@ public class RefreshToken {
     // Constructors, getters, and setters
     public RefreshToken() {}
     
-    public RefreshToken(User user, String token, LocalDateTime expiryDate) {
+    public RefreshToken(User user, String token, String familyId, LocalDateTime expiryDate) {
         this.user = user;
-        this.token = token;
+        this.tokenHash = hash(token);
+        this.familyId = familyId;
         this.expiryDate = expiryDate;
     }
 
+    /** Hex SHA-256 of the raw token, the only form that is stored or looked up. */
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
 	public Long getId() {
 		return id;
 	}
@@ -45,12 +75,20 @@ public class RefreshToken {
 		this.user = user;
 	}
 
-	public String getToken() {
-		return token;
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	public void setTokenHash(String tokenHash) {
+		this.tokenHash = tokenHash;
+	}
+
+	public String getFamilyId() {
+		return familyId;
 	}
 
-	public void setToken(String token) {
-		this.token = token;
+	public void setFamilyId(String familyId) {
+		this.familyId = familyId;
 	}
 
 	public LocalDateTime getExpiryDate() {
@@ -0,0 +1,49 @@
+package com.videosharing.model.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_parts", uniqueConstraints = @UniqueConstraint(columnNames = { "session_id", "part_number" }))
+public class UploadPart {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    private UploadSession session;
+
+    @Column(name = "part_number", nullable = false)
+    private Integer partNumber;
+
+    @Column(nullable = false)
+    private String etag;
+
+    private Long size;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public UploadPart() {}
+
+    public UploadPart(UploadSession session, Integer partNumber, String etag, Long size) {
+        this.session = session;
+        this.partNumber = partNumber;
+        this.etag = etag;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public UploadSession getSession() { return session; }
+    public void setSession(UploadSession session) { this.session = session; }
+    public Integer getPartNumber() { return partNumber; }
+    public void setPartNumber(Integer partNumber) { this.partNumber = partNumber; }
+    public String getEtag() { return etag; }
+    public void setEtag(String etag) { this.etag = etag; }
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
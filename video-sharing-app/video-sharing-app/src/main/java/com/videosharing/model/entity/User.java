@@ -62,6 +62,27 @@ public class User implements UserDetails {
         this.lastName = lastName;
     }
 
+    /**
+     * Detached field-by-field copy, e.g. of a shared cached user before it is
+     * handed to one request. The lazy videos collection is not copied.
+     */
+    public User(User other) {
+        this.id = other.id;
+        this.email = other.email;
+        this.username = other.username;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.contactNumber = other.contactNumber;
+        this.profilePictureUrl = other.profilePictureUrl;
+        this.bio = other.bio;
+        this.password = other.password;
+        this.role = other.role;
+        this.isActive = other.isActive;
+        this.otp = other.otp;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // ================= GETTERS & SETTERS =================
 
     public Long getId() {
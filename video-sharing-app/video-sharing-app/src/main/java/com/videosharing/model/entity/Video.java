@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "videos")
+@Table(name = "videos", indexes = {
+		@Index(name = "idx_videos_location_key", columnList = "location_key, status"),
+		@Index(name = "idx_videos_feed", columnList = "status, created_at, id") })
 public class Video {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +28,11 @@ public class Video {
 	private String categories; // Stored as JSON string or comma-separated
 
 	private String location;
+
+	// Normalized copy of location for indexed equality filtering (see VideoLabel.normalizeKey)
+	@Column(name = "location_key", length = 100)
+	private String locationKey;
+
 	private String tags;
 	private String rejectionReason;
 
@@ -47,16 +54,32 @@ public class Video {
 	@Enumerated(EnumType.STRING)
 	private ContentType contentType = ContentType.VIDEO; // Default to VIDEO
 
-	@Column(nullable = false)
+	// HLS transcoding job state
+	public enum TranscodeStatus {
+		NONE,
+		QUEUED,
+		PROCESSING,
+		READY,
+		FAILED
+	}
+
+	@Enumerated(EnumType.STRING)
+	private TranscodeStatus transcodeStatus = TranscodeStatus.NONE;
+
+	private String hlsManifestUrl;
+
+	// Counters are only ever changed by relative UPDATEs (see CounterServiceImpl),
+	// never by saving the entity, so a stale entity can't overwrite flushed clicks
+	@Column(nullable = false, updatable = false)
 	private Integer likesCount = 0;
 
-	@Column(nullable = false)
+	@Column(nullable = false, updatable = false)
 	private Integer dislikesCount = 0;
 
-	@Column(nullable = false, columnDefinition = "bigint default 0")
+	@Column(nullable = false, updatable = false, columnDefinition = "bigint default 0")
 	private Long views = 0L;
 
-	@Column(nullable = false, columnDefinition = "integer default 0")
+	@Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
 	private Integer shareCount = 0;
 
 	private LocalDateTime createdAt = LocalDateTime.now();
@@ -140,6 +163,11 @@ public class Video {
 
 	public void setLocation(String location) {
 		this.location = location;
+		this.locationKey = VideoLabel.normalizeKey(location);
+	}
+
+	public String getLocationKey() {
+		return locationKey;
 	}
 
 	public String getTags() {
@@ -206,6 +234,22 @@ public class Video {
 		this.contentType = contentType;
 	}
 
+	public TranscodeStatus getTranscodeStatus() {
+		return transcodeStatus;
+	}
+
+	public void setTranscodeStatus(TranscodeStatus transcodeStatus) {
+		this.transcodeStatus = transcodeStatus;
+	}
+
+	public String getHlsManifestUrl() {
+		return hlsManifestUrl;
+	}
+
+	public void setHlsManifestUrl(String hlsManifestUrl) {
+		this.hlsManifestUrl = hlsManifestUrl;
+	}
+
 	public LocalDateTime getCreatedAt() {
 		return createdAt;
 	}
@@ -0,0 +1,82 @@
+package com.videosharing.model.entity;
+
+import jakarta.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalized category/tag rows for a video, one per label. The unique key leads
+ * with (kind, label_key) so "videos in category X" is an index lookup instead of
+ * a LIKE over the free-text {@code categories}/{@code tags} columns.
+ */
+@Entity
+@Table(name = "video_labels", uniqueConstraints = @UniqueConstraint(name = "uk_video_labels", columnNames = { "kind", "label_key", "video_id" }), indexes = @Index(name = "idx_video_labels_video", columnList = "video_id"))
+public class VideoLabel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(name = "label_key", nullable = false, length = 100)
+    private String labelKey;
+
+    public enum Kind {
+        CATEGORY, TAG
+    }
+
+    public VideoLabel() {}
+
+    public VideoLabel(Long videoId, Kind kind, String labelKey) {
+        this.videoId = videoId;
+        this.kind = kind;
+        this.labelKey = labelKey;
+    }
+
+    /**
+     * Lookup key for a label or location: lower case, trimmed, inner whitespace
+     * collapsed, leading '#'s dropped. Null for blank input. schema.sql backfills
+     * existing rows with the same rules, so keep the two in sync.
+     */
+    public static String normalizeKey(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String key = raw.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT).replaceFirst("^#+", "").trim();
+        if (key.isEmpty()) {
+            return null;
+        }
+        return key.length() > 100 ? key.substring(0, 100) : key;
+    }
+
+    /** Splits a stored list (comma separated or a JSON array of strings) into distinct keys. */
+    public static List<String> splitKeys(String raw) {
+        List<String> keys = new ArrayList<>();
+        if (raw == null) {
+            return keys;
+        }
+        for (String part : raw.replaceAll("[\\[\\]\"]", "").split(",")) {
+            String key = normalizeKey(part);
+            if (key != null && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getVideoId() { return videoId; }
+    public void setVideoId(Long videoId) { this.videoId = videoId; }
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+    public String getLabelKey() { return labelKey; }
+    public void setLabelKey(String labelKey) { this.labelKey = labelKey; }
+}
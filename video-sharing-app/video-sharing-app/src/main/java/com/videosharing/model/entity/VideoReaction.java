@@ -0,0 +1,47 @@
+package com.videosharing.model.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row per (user, video) pair; the unique key is what makes like/dislike
+ * idempotent. Plain id columns keep the row narrow and avoid loading either side.
+ */
+@Entity
+@Table(name = "video_reactions", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "video_id" }), indexes = @Index(name = "idx_video_reactions_video", columnList = "video_id"))
+public class VideoReaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum Kind {
+        LIKE, DISLIKE
+    }
+
+    public VideoReaction() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public Long getVideoId() { return videoId; }
+    public void setVideoId(Long videoId) { this.videoId = videoId; }
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
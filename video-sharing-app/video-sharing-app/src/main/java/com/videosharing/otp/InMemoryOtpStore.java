@@ -0,0 +1,75 @@
+package com.videosharing.otp;
+
+import com.videosharing.util.OtpUtil;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link OtpStore} on the heap, bounded by {@code otp.max-entries}: when full,
+ * the least recently touched code is dropped (its owner can request a new one).
+ * Codes are lost on restart, which costs users a resend and nothing else.
+ */
+@Component
+public class InMemoryOtpStore implements OtpStore {
+
+    @Value("${otp.max-entries:100000}")
+    private int maxEntries;
+
+    private LinkedHashMap<String, Entry> entries;
+
+    @PostConstruct
+    public void init() {
+        entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void put(String email, String code, long expiresAtMillis) {
+        entries.put(email, new Entry(code, expiresAtMillis));
+    }
+
+    @Override
+    public synchronized Result verify(String email, String code, int maxAttempts, long nowMillis) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return Result.NOT_FOUND;
+        }
+        if (entry.expiresAt <= nowMillis) {
+            entries.remove(email);
+            return Result.EXPIRED;
+        }
+        if (OtpUtil.matches(entry.code, code)) {
+            entries.remove(email);
+            return Result.VALID;
+        }
+        if (++entry.failedAttempts >= maxAttempts) {
+            entries.remove(email);
+            return Result.TOO_MANY_ATTEMPTS;
+        }
+        return Result.INVALID;
+    }
+
+    @Override
+    public synchronized void remove(String email) {
+        entries.remove(email);
+    }
+
+    private static final class Entry {
+        final String code;
+        final long expiresAt;
+        int failedAttempts;
+
+        Entry(String code, long expiresAt) {
+            this.code = code;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.videosharing.otp;
+
+/**
+ * Where issued OTPs live until they are used, expire or run out of attempts.
+ * The default {@link InMemoryOtpStore} keeps them on the heap; a shared store
+ * (Redis, a table) only needs to make {@link #verify} atomic per email.
+ */
+public interface OtpStore {
+
+    enum Result {
+        VALID,
+        INVALID,
+        EXPIRED,
+        TOO_MANY_ATTEMPTS,
+        NOT_FOUND
+    }
+
+    /** Stores a code for the email, replacing any earlier one and its attempt count. */
+    void put(String email, String code, long expiresAtMillis);
+
+    /**
+     * Checks a code. A valid code is consumed; a wrong one counts as an attempt,
+     * and the code is dropped once {@code maxAttempts} wrong attempts were made.
+     */
+    Result verify(String email, String code, int maxAttempts, long nowMillis);
+
+    void remove(String email);
+}
@@ -0,0 +1,51 @@
+package com.videosharing.otp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-window request counter per key (an email, an IP address). Keys are
+ * kept in a bounded LRU, so a flood of distinct keys evicts the oldest
+ * windows instead of growing the heap; an evicted key simply starts a fresh
+ * window.
+ */
+public class RateLimiter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final LinkedHashMap<String, Window> windows;
+
+    public RateLimiter(int limit, long windowMillis, int maxKeys) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.windows = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /** Counts one request for the key; false once the key has used up its window. */
+    public synchronized boolean tryAcquire(String key, long nowMillis) {
+        Window window = windows.get(key);
+        if (window == null || nowMillis - window.start >= windowMillis) {
+            window = new Window(nowMillis);
+            windows.put(key, window);
+        }
+        if (window.count >= limit) {
+            return false;
+        }
+        window.count++;
+        return true;
+    }
+
+    private static final class Window {
+        final long start;
+        int count;
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+}
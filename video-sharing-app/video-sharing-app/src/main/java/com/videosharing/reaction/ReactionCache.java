@@ -0,0 +1,113 @@
+package com.videosharing.reaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory view of who reacted to what, used to answer "has this user
+ * liked this video?" without a query in the common case.
+ *
+ * A Bloom filter over (user, video) pairs gives a definite "no reaction"
+ * for most pairs; pairs that may have a reaction fall through to a bounded
+ * LRU of recently seen exact answers, and only then to the database.
+ * Bloom bits are never cleared, so removed reactions simply become false
+ * positives that cost one lookup.
+ *
+ * Both only see this node's writes, so they are read hints: LRU answers
+ * expire after {@code ttlMillis}, and callers decide whether a Bloom "no"
+ * can be trusted at all.
+ */
+public class ReactionCache {
+
+    /** Cached "no reaction" marker, distinct from "not cached". */
+    public static final String NONE = "NONE";
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashes;
+    private final LinkedHashMap<PairKey, Recent> recent;
+    private final long ttlMillis;
+
+    public ReactionCache(long expectedEntries, double falsePositiveRate, int recentEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+        this.recent = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PairKey, Recent> eldest) {
+                return size() > recentEntries;
+            }
+        };
+    }
+
+    /** Records that the pair has (or had) a reaction. */
+    public void markReacted(Long userId, Long videoId) {
+        long h1 = mix(userId * 0x9E3779B97F4A7C15L ^ videoId);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /** False means the pair has definitely never reacted since the filter was built. */
+    public boolean mightHaveReacted(Long userId, Long videoId) {
+        long h1 = mix(userId * 0x9E3779B97F4A7C15L ^ videoId);
+        long h2 = mix(h1 ^ 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the cached kind name, {@link #NONE}, or null when the pair isn't cached or has expired. */
+    public String getRecent(Long userId, Long videoId) {
+        PairKey key = new PairKey(userId, videoId);
+        synchronized (recent) {
+            Recent entry = recent.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                recent.remove(key);
+                return null;
+            }
+            return entry.kind;
+        }
+    }
+
+    public void putRecent(Long userId, Long videoId, String kind) {
+        Recent entry = new Recent(kind == null ? NONE : kind, System.currentTimeMillis() + ttlMillis);
+        synchronized (recent) {
+            recent.put(new PairKey(userId, videoId), entry);
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private record PairKey(Long userId, Long videoId) {
+    }
+
+    private record Recent(String kind, long expiresAt) {
+    }
+}
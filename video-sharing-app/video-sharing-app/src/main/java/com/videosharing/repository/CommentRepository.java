@@ -6,4 +6,9 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByVideoIdOrderByCreatedAtDesc(Long videoId);
+
+    // Rows of (videoId, commentCount) for approved videos, used by the trending scorer
+    @org.springframework.data.jpa.repository.Query("SELECT c.video.id, COUNT(c) FROM Comment c " +
+            "WHERE c.video.status = com.videosharing.model.entity.Video.Status.APPROVED GROUP BY c.video.id")
+    List<Object[]> countByApprovedVideo();
 }
@@ -3,17 +3,49 @@ package com.videosharing.repository;
 import com.videosharing.model.entity.ImageNews;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ImageNewsRepository extends JpaRepository<ImageNews, Long> {
     List<ImageNews> findByStatus(ImageNews.Status status);
 
+    // imageUrls is a comma-separated list of full public URLs, so a substring match finds any reuse
+    boolean existsByImageUrlsContaining(String imageUrl);
+
+    // Uploader fetched eagerly so the entity can be cached and serialized detached
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT i FROM ImageNews i WHERE i.id = :id")
+    Optional<ImageNews> findWithUserById(@Param("id") Long id);
+
     @Query("SELECT i FROM ImageNews i WHERE (:status IS NULL OR i.status = :status) AND " +
             "(:location IS NULL OR :location = '' OR i.location = :location)")
     Page<ImageNews> findByFilters(ImageNews.Status status, String location, Pageable pageable);
+
+    // Seek page for the cursor feed, newest first; see VideoRepository.findFeedAfter
+    @Query("SELECT i FROM ImageNews i WHERE (:status IS NULL OR i.status = :status) " +
+            "AND i.createdAt <= :createdAt AND (i.createdAt < :createdAt OR i.id < :id) " +
+            "AND (:location IS NULL OR :location = '' OR i.location = :location) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    Slice<ImageNews> findFeedAfter(@Param("status") ImageNews.Status status, @Param("location") String location,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Relative, single-statement counter update: no entity load and no lost increments under concurrency
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImageNews i SET i.views = i.views + :views, " +
+            "i.likesCount = CASE WHEN i.likesCount + :likes < 0 THEN 0 ELSE i.likesCount + :likes END, " +
+            "i.shareCount = i.shareCount + :shares WHERE i.id = :id")
+    int addCounters(@Param("id") Long id, @Param("views") long views, @Param("likes") int likes,
+            @Param("shares") int shares);
 }
@@ -0,0 +1,55 @@
+package com.videosharing.repository;
+
+import com.videosharing.model.entity.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    @Query("SELECT e.id FROM OutboundEmail e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now " +
+            "ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only one dispatcher (thread or node) can move a row from PENDING to SENDING
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboundEmail e SET e.status = 'SENDING', e.lockedAt = :now " +
+            "WHERE e.id = :id AND e.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboundEmail e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lastError = :error, e.lockedAt = null WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("status") OutboundEmail.Status status,
+            @Param("attempts") int attempts, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error);
+
+    // Rows left in SENDING by a node that died mid-send
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboundEmail e SET e.status = 'PENDING', e.lockedAt = null " +
+            "WHERE e.status = 'SENDING' AND e.lockedAt < :before")
+    int releaseStale(@Param("before") LocalDateTime before);
+
+    // Rows already claimed for sending are left alone
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboundEmail e WHERE e.recipient = :recipient AND e.subject = :subject " +
+            "AND e.status = 'PENDING'")
+    int deletePending(@Param("recipient") String recipient, @Param("subject") String subject);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = 'FAILED' AND e.createdAt < :before")
+    int deleteFailedBefore(@Param("before") LocalDateTime before);
+}
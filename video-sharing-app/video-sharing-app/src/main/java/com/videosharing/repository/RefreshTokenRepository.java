@@ -1,13 +1,35 @@
 package com.videosharing.repository;
 
 import com.videosharing.model.entity.RefreshToken;
-import com.videosharing.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    Optional<RefreshToken> findByUser(User user);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Conditional so two concurrent refreshes with the same token can't both rotate it
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.id = :id AND r.isRevoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.isRevoked = true WHERE r.familyId = :familyId AND r.isRevoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Expired rows, and revoked rows whose family has nothing left to protect
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiryDate < :now OR (r.isRevoked = true AND NOT EXISTS " +
+            "(SELECT 1 FROM RefreshToken a WHERE a.familyId = r.familyId AND a.isRevoked = false))")
+    int purge(@Param("now") LocalDateTime now);
 }
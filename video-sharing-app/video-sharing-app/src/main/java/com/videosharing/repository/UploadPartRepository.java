@@ -0,0 +1,24 @@
+package com.videosharing.repository;
+
+import com.videosharing.model.entity.UploadPart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadPartRepository extends JpaRepository<UploadPart, Long> {
+    List<UploadPart> findBySessionIdOrderByPartNumber(String sessionId);
+
+    Optional<UploadPart> findBySessionIdAndPartNumber(String sessionId, Integer partNumber);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UploadPart p WHERE p.session.id = :sessionId")
+    void deleteBySessionId(@Param("sessionId") String sessionId);
+}
@@ -0,0 +1,36 @@
+package com.videosharing.repository;
+
+import com.videosharing.model.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    List<UploadSession> findByStatusAndUpdatedAtBefore(UploadSession.Status status, LocalDateTime time);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.updatedAt = :time WHERE s.id = :id")
+    void touch(@Param("id") String id, @Param("time") LocalDateTime time);
+
+    // Only one complete call can move a session out of IN_PROGRESS
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.status = 'COMPLETING', s.updatedAt = :time " +
+            "WHERE s.id = :id AND s.status = 'IN_PROGRESS'")
+    int claimForCompletion(@Param("id") String id, @Param("time") LocalDateTime time);
+
+    // Runs in the transaction that inserts the video, so a lost race rolls that insert back
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.status = 'COMPLETED', s.videoId = :videoId, s.updatedAt = :time " +
+            "WHERE s.id = :id AND s.status = 'COMPLETING'")
+    int markCompleted(@Param("id") String id, @Param("videoId") Long videoId, @Param("time") LocalDateTime time);
+}
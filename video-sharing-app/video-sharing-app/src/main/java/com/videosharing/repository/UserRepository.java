@@ -24,4 +24,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(u.contactNumber) LIKE LOWER(CONCAT('%', :query, '%'))")
     java.util.List<User> searchUsers(@org.springframework.data.repository.query.Param("query") String query);
+
+    // Compare-and-set so a rehash never overwrites a password changed in the meantime
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE User u SET u.password = :newHash " +
+            "WHERE u.id = :id AND u.password = :oldHash")
+    int updatePassword(@org.springframework.data.repository.query.Param("id") Long id,
+                       @org.springframework.data.repository.query.Param("newHash") String newHash,
+                       @org.springframework.data.repository.query.Param("oldHash") String oldHash);
 }
@@ -0,0 +1,18 @@
+package com.videosharing.repository;
+
+import com.videosharing.model.entity.VideoLabel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface VideoLabelRepository extends JpaRepository<VideoLabel, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VideoLabel l WHERE l.videoId = :videoId")
+    void deleteByVideoId(@Param("videoId") Long videoId);
+}
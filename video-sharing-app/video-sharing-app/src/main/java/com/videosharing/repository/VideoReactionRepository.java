@@ -0,0 +1,47 @@
+package com.videosharing.repository;
+
+import com.videosharing.model.entity.VideoReaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VideoReactionRepository extends JpaRepository<VideoReaction, Long> {
+
+    @Query("SELECT r.kind FROM VideoReaction r WHERE r.userId = :userId AND r.videoId = :videoId")
+    Optional<VideoReaction.Kind> findKind(@Param("userId") Long userId, @Param("videoId") Long videoId);
+
+    // Returns 1 when the row was created, 0 when the user already reacted or the video doesn't exist
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO video_reactions (user_id, video_id, kind, created_at) " +
+            "SELECT :userId, v.id, :kind, now() FROM videos v WHERE v.id = :videoId " +
+            "ON CONFLICT (user_id, video_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("videoId") Long videoId, @Param("kind") String kind);
+
+    // Returns 1 only when an existing reaction actually flipped to the given kind
+    @Modifying
+    @Transactional
+    @Query("UPDATE VideoReaction r SET r.kind = :kind WHERE r.userId = :userId AND r.videoId = :videoId AND r.kind <> :kind")
+    int switchKind(@Param("userId") Long userId, @Param("videoId") Long videoId, @Param("kind") VideoReaction.Kind kind);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VideoReaction r WHERE r.userId = :userId AND r.videoId = :videoId AND r.kind = :kind")
+    int deleteReaction(@Param("userId") Long userId, @Param("videoId") Long videoId, @Param("kind") VideoReaction.Kind kind);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VideoReaction r WHERE r.videoId = :videoId")
+    void deleteByVideoId(@Param("videoId") Long videoId);
+
+    // Keyset walk used to warm the in-memory filter: rows of (id, userId, videoId)
+    @Query("SELECT r.id, r.userId, r.videoId FROM VideoReaction r WHERE r.id > :afterId ORDER BY r.id")
+    List<Object[]> findPairsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
+}
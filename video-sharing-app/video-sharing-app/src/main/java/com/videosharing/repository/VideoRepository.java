@@ -11,23 +11,97 @@ import java.util.List;
 
 public interface VideoRepository extends JpaRepository<Video, Long> {
 
+    // Listing queries fetch the uploader in the same query (EntityGraph) so mapping to VideoDto needs no extra selects
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
     Page<Video> findByStatus(Video.Status status, Pageable pageable);
 
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
     List<Video> findByUser(User user);
 
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
     List<Video> findByStatus(Video.Status status);
 
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
+    @org.springframework.data.jpa.repository.Query("SELECT v FROM Video v WHERE v.id = :id")
+    java.util.Optional<Video> findWithUserById(@org.springframework.data.repository.query.Param("id") Long id);
+
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
+    @org.springframework.data.jpa.repository.Query("SELECT v FROM Video v WHERE v.id IN :ids")
+    List<Video> findWithUserByIdIn(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
     List<Video> findByExpiresAtBefore(LocalDateTime time);
 
+    List<Video> findByTranscodeStatusIn(java.util.Collection<Video.TranscodeStatus> statuses);
+
+    // Relative, single-statement counter update: no entity load and no lost increments under concurrency
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE Video v SET v.views = v.views + :views, " +
+            "v.likesCount = CASE WHEN v.likesCount + :likes < 0 THEN 0 ELSE v.likesCount + :likes END, " +
+            "v.dislikesCount = CASE WHEN v.dislikesCount + :dislikes < 0 THEN 0 ELSE v.dislikesCount + :dislikes END, " +
+            "v.shareCount = v.shareCount + :shares WHERE v.id = :id")
+    int addCounters(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("views") long views,
+            @org.springframework.data.repository.query.Param("likes") int likes,
+            @org.springframework.data.repository.query.Param("dislikes") int dislikes,
+            @org.springframework.data.repository.query.Param("shares") int shares);
+
+    // Single-column updates so background jobs never overwrite counters or moderation state
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE Video v SET v.transcodeStatus = :status WHERE v.id = :id")
+    int updateTranscodeStatus(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("status") Video.TranscodeStatus status);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE Video v SET v.transcodeStatus = 'READY', v.hlsManifestUrl = :manifestUrl WHERE v.id = :id")
+    int markTranscoded(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("manifestUrl") String manifestUrl);
+
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Query("UPDATE Video v SET v.thumbnailUrl = :url WHERE v.id = :id")
+    int updateThumbnailUrl(@org.springframework.data.repository.query.Param("id") Long id,
+            @org.springframework.data.repository.query.Param("url") String url);
+
+    // Filters are normalized keys (VideoLabel.normalizeKey) or null; each one is an index lookup
+    // on video_labels (kind, label_key) or videos (location_key, status)
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
     @org.springframework.data.jpa.repository.Query("SELECT v FROM Video v WHERE v.status = :status " +
-            "AND (:category IS NULL OR :category = '' OR v.categories LIKE %:category%) " +
-            "AND (:location IS NULL OR :location = '' OR v.location LIKE %:location%)")
+            "AND (:category IS NULL OR v.id IN (SELECT l.videoId FROM VideoLabel l " +
+            "WHERE l.kind = com.videosharing.model.entity.VideoLabel.Kind.CATEGORY AND l.labelKey = :category)) " +
+            "AND (:tag IS NULL OR v.id IN (SELECT l.videoId FROM VideoLabel l " +
+            "WHERE l.kind = com.videosharing.model.entity.VideoLabel.Kind.TAG AND l.labelKey = :tag)) " +
+            "AND (:locationKey IS NULL OR v.locationKey = :locationKey)")
     Page<Video> findByFilters(
             @org.springframework.data.repository.query.Param("status") Video.Status status,
             @org.springframework.data.repository.query.Param("category") String category,
-            @org.springframework.data.repository.query.Param("location") String location,
+            @org.springframework.data.repository.query.Param("tag") String tag,
+            @org.springframework.data.repository.query.Param("locationKey") String locationKey,
             Pageable pageable);
 
+    // Seek page for the cursor feed: rows strictly after (createdAt, id) in (createdAt DESC, id DESC) order.
+    // The leading "createdAt <=" bound lets idx_videos_feed serve it as one range scan; Slice skips the count.
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
+    @org.springframework.data.jpa.repository.Query("SELECT v FROM Video v WHERE v.status = :status " +
+            "AND v.createdAt <= :createdAt AND (v.createdAt < :createdAt OR v.id < :id) " +
+            "AND (:category IS NULL OR v.id IN (SELECT l.videoId FROM VideoLabel l " +
+            "WHERE l.kind = com.videosharing.model.entity.VideoLabel.Kind.CATEGORY AND l.labelKey = :category)) " +
+            "AND (:tag IS NULL OR v.id IN (SELECT l.videoId FROM VideoLabel l " +
+            "WHERE l.kind = com.videosharing.model.entity.VideoLabel.Kind.TAG AND l.labelKey = :tag)) " +
+            "AND (:locationKey IS NULL OR v.locationKey = :locationKey) " +
+            "ORDER BY v.createdAt DESC, v.id DESC")
+    org.springframework.data.domain.Slice<Video> findFeedAfter(
+            @org.springframework.data.repository.query.Param("status") Video.Status status,
+            @org.springframework.data.repository.query.Param("category") String category,
+            @org.springframework.data.repository.query.Param("tag") String tag,
+            @org.springframework.data.repository.query.Param("locationKey") String locationKey,
+            @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+            @org.springframework.data.repository.query.Param("id") Long id,
+            Pageable pageable);
+
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
     @org.springframework.data.jpa.repository.Query("SELECT v FROM Video v WHERE v.status = 'APPROVED' AND (" +
             "LOWER(v.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(v.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -36,9 +110,41 @@ public interface VideoRepository extends JpaRepository<Video, Long> {
             "LOWER(v.categories) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<Video> searchVideos(@org.springframework.data.repository.query.Param("query") String query, Pageable pageable);
 
+    // Full-text search over the generated search_vector column (see schema.sql), served by its GIN index.
+    // Text relevance is boosted by popularity and decays by age in weeks.
+    @org.springframework.data.jpa.repository.Query(value = "SELECT v.* FROM videos v, to_tsquery('english', :tsquery) q " +
+            "WHERE v.status = 'APPROVED' AND v.search_vector @@ q " +
+            "ORDER BY ts_rank(v.search_vector, q) * (1 + ln(1 + v.views) / 10) " +
+            "/ (1 + extract(epoch from (now() - v.created_at)) / 604800) DESC, v.id DESC",
+            countQuery = "SELECT count(*) FROM videos v WHERE v.status = 'APPROVED' " +
+                    "AND v.search_vector @@ to_tsquery('english', :tsquery)",
+            nativeQuery = true)
+    // Native query: the uploader is loaded by Hibernate's batch fetching (hibernate.default_batch_fetch_size)
+    Page<Video> fullTextSearch(@org.springframework.data.repository.query.Param("tsquery") String tsquery, Pageable pageable);
+
+    // Keyset walk used to (re)build the in-memory search index without loading entities:
+    // rows of (id, title, description, tags, location, categories, status, username, email)
+    @org.springframework.data.jpa.repository.Query("SELECT v.id, v.title, v.description, v.tags, v.location, v.categories, " +
+            "v.status, u.username, u.email FROM Video v LEFT JOIN v.user u WHERE v.id > :afterId ORDER BY v.id")
+    List<Object[]> findSearchDocumentsAfter(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Keyset walk used to build the autocomplete trie: rows of (id, title, tags, views) for approved videos
+    @org.springframework.data.jpa.repository.Query("SELECT v.id, v.title, v.tags, v.views FROM Video v " +
+            "WHERE v.status = 'APPROVED' AND v.id > :afterId ORDER BY v.id")
+    List<Object[]> findSuggestionSourcesAfter(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Keyset walk for the trending scorer: rows of (id, views, likesCount, shareCount, createdAt) for approved videos
+    @org.springframework.data.jpa.repository.Query("SELECT v.id, v.views, v.likesCount, v.shareCount, v.createdAt FROM Video v " +
+            "WHERE v.status = 'APPROVED' AND v.id > :afterId ORDER BY v.id")
+    List<Object[]> findTrendingSourcesAfter(@org.springframework.data.repository.query.Param("afterId") Long afterId,
+            Pageable pageable);
+
     @org.springframework.data.jpa.repository.Query("SELECT v.title FROM Video v WHERE v.status = 'APPROVED' AND " +
             "LOWER(v.title) LIKE LOWER(CONCAT('%', :query, '%')) ORDER BY v.views DESC")
     List<String> findSuggestions(@org.springframework.data.repository.query.Param("query") String query, Pageable pageable);
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = "user")
     @org.springframework.data.jpa.repository.Query("SELECT v FROM Video v WHERE " +
             "LOWER(v.user.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(v.user.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -0,0 +1,19 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.CounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CounterFlushScheduler {
+
+    @Autowired
+    private CounterService counterService;
+
+    // Push buffered view/like/share deltas to the database
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:5000}")
+    public void flushCounters() {
+        counterService.flush();
+    }
+}
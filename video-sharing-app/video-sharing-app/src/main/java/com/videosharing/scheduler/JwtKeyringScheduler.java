@@ -0,0 +1,19 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JwtKeyringScheduler {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Picks up a rotated jwt.keyring-file without a restart (no-op when the file is unset or unchanged)
+    @Scheduled(fixedDelayString = "${jwt.keyring.refresh-ms:60000}", initialDelayString = "${jwt.keyring.refresh-ms:60000}")
+    public void reloadKeyring() {
+        jwtUtil.reloadKeyring();
+    }
+}
@@ -0,0 +1,19 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.EmailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MailOutboxScheduler {
+
+    @Autowired
+    private EmailService emailService;
+
+    // Retries, mail the dispatcher pool couldn't take, and sends interrupted by a restart
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:10000}", initialDelayString = "${mail.outbox.poll-interval-ms:10000}")
+    public void dispatchDueMail() {
+        emailService.dispatchDue();
+    }
+}
@@ -0,0 +1,20 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RefreshTokenPurgeScheduler {
+
+    @Autowired
+    private AuthService authService;
+
+    // Expired refresh tokens and revoked sessions only bloat the hash index
+    @Scheduled(cron = "${auth.refresh-token.purge-cron:0 30 3 * * *}")
+    public void purgeRefreshTokens() {
+        int removed = authService.purgeRefreshTokens();
+        System.out.println("Refresh token purge removed " + removed + " rows");
+    }
+}
@@ -0,0 +1,19 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.SuggestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SuggestionRebuildScheduler {
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    // Resync autocomplete rankings with views flushed by every node
+    @Scheduled(cron = "${suggestions.rebuild-cron:0 15 * * * *}")
+    public void rebuildSuggestions() {
+        suggestionService.rebuild();
+    }
+}
@@ -0,0 +1,19 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.TranscodingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TranscodeQueueScheduler {
+
+    @Autowired
+    private TranscodingService transcodingService;
+
+    // Run every 5 minutes: picks up jobs that overflowed the worker queue
+    @Scheduled(cron = "0 */5 * * * *")
+    public void requeuePendingTranscodes() {
+        transcodingService.requeuePending(false);
+    }
+}
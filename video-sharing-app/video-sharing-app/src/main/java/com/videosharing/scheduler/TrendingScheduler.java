@@ -0,0 +1,19 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TrendingScheduler {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    // Rescore approved videos for /api/videos/trending
+    @Scheduled(fixedDelayString = "${trending.refresh-interval-ms:300000}", initialDelayString = "${trending.refresh-interval-ms:300000}")
+    public void refreshTrending() {
+        trendingService.refresh();
+    }
+}
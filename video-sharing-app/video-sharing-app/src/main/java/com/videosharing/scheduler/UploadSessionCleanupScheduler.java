@@ -0,0 +1,20 @@
+package com.videosharing.scheduler;
+
+import com.videosharing.service.ResumableUploadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UploadSessionCleanupScheduler {
+
+    @Autowired
+    private ResumableUploadService resumableUploadService;
+
+    // Run every hour, offset from the video cleanup
+    @Scheduled(cron = "0 30 * * * *")
+    public void cleanupStaleUploads() {
+        System.out.println("Running scheduled upload session cleanup...");
+        resumableUploadService.cleanupStaleUploads();
+    }
+}
@@ -0,0 +1,344 @@
+package com.videosharing.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded inverted index scored with BM25. Documents are keyed by an external
+ * {@code long} id and mapped to dense internal {@code int} doc numbers, so posting
+ * lists are plain primitive arrays. Scores accumulate in a table sized by the
+ * postings a query touches, so query cost follows the hit count, not the catalog.
+ *
+ * The term dictionary is sorted, which lets the last query term match as a
+ * prefix for search-as-you-type. All methods are thread-safe; queries share a
+ * read lock and updates take the write lock briefly.
+ */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> docByKey = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexed by internal doc number
+    private long[] keys = new long[1024];
+    private int[] lengths = new int[1024];
+    private String[][] docTerms = new String[1024][];
+
+    private int[] freeDocs = new int[64];
+    private int freeCount;
+    private int maxDoc;
+    private int docCount;
+    private long totalLength;
+
+    /** Ranked page of external ids plus the total number of matching documents. */
+    public static class Hits {
+        private final long[] ids;
+        private final int total;
+
+        Hits(long[] ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public long[] getIds() { return ids; }
+        public int getTotal() { return total; }
+    }
+
+    /** Adds the document, or replaces it if the key is already indexed. */
+    public void put(long key, Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (termFrequencies.isEmpty()) {
+                return;
+            }
+            int doc = allocateDoc();
+            int length = 0;
+            String[] terms = new String[termFrequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                dictionary.computeIfAbsent(entry.getKey(), t -> new Postings()).add(doc, entry.getValue());
+                length += entry.getValue();
+                terms[i++] = entry.getKey();
+            }
+            keys[doc] = key;
+            lengths[doc] = length;
+            docTerms[doc] = terms;
+            docByKey.put(key, doc);
+            docCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document containing at least one query term and returns the
+     * ids ranked {@code offset .. offset + limit - 1}. When {@code prefixLast} is set
+     * the final term also matches every indexed term that starts with it.
+     */
+    public Hits search(List<String> queryTerms, boolean prefixLast, int offset, int limit) {
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new Hits(new long[0], 0);
+        }
+        lock.readLock().lock();
+        try {
+            if (docCount == 0) {
+                return new Hits(new long[0], 0);
+            }
+            float avgLength = (float) totalLength / docCount;
+
+            List<Postings> lists = new ArrayList<>();
+            int postingCount = 0;
+            for (int q = 0; q < queryTerms.size(); q++) {
+                String term = queryTerms.get(q);
+                if (prefixLast && q == queryTerms.size() - 1) {
+                    NavigableMap<String, Postings> range = dictionary.subMap(term, true, term + Character.MAX_VALUE, false);
+                    int expansions = 0;
+                    for (Postings postings : range.values()) {
+                        if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        lists.add(postings);
+                        postingCount += postings.size;
+                    }
+                } else {
+                    Postings postings = dictionary.get(term);
+                    if (postings != null) {
+                        lists.add(postings);
+                        postingCount += postings.size;
+                    }
+                }
+            }
+            if (postingCount == 0) {
+                return new Hits(new long[0], 0);
+            }
+
+            ScoreTable table = new ScoreTable(postingCount);
+            for (Postings postings : lists) {
+                float idf = (float) Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+                for (int p = 0; p < postings.size; p++) {
+                    int doc = postings.docs[p];
+                    int tf = postings.freqs[p];
+                    float norm = K1 * (1 - B + B * lengths[doc] / avgLength);
+                    table.add(doc, idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            int matchedCount = table.size;
+            int[] docs = new int[matchedCount];
+            float[] scores = new float[matchedCount];
+            table.drainTo(docs, scores);
+
+            int wanted = Math.min(matchedCount, offset + limit);
+            int[] top = topDocs(docs, scores, wanted);
+            int from = Math.min(offset, top.length);
+            long[] ids = new long[top.length - from];
+            for (int i = from; i < top.length; i++) {
+                ids[i - from] = keys[docs[top[i]]];
+            }
+            return new Hits(ids, matchedCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indices of the best n matches by score (ties by newer doc number), via a size-n min-heap
+    private static int[] topDocs(int[] docs, float[] scores, int n) {
+        if (n <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[n];
+        int size = 0;
+        for (int i = 0; i < docs.length; i++) {
+            if (size < n) {
+                heap[size] = i;
+                siftUp(heap, size++, docs, scores);
+            } else if (better(i, heap[0], docs, scores)) {
+                heap[0] = i;
+                siftDown(heap, size, docs, scores);
+            }
+        }
+        // Pop the heap from the back so the result ends up best-first
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, docs, scores);
+        }
+        return result;
+    }
+
+    private static boolean better(int a, int b, int[] docs, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && docs[a] > docs[b]);
+    }
+
+    private static void siftUp(int[] heap, int i, int[] docs, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], docs, scores)) {
+                break;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int[] docs, float[] scores) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(heap[left], heap[right], docs, scores)) {
+                worst = right;
+            }
+            if (!better(heap[i], heap[worst], docs, scores)) {
+                return;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private void removeLocked(long key) {
+        Integer doc = docByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        for (String term : docTerms[doc]) {
+            Postings postings = dictionary.get(term);
+            if (postings != null && postings.remove(doc) && postings.size == 0) {
+                dictionary.remove(term);
+            }
+        }
+        totalLength -= lengths[doc];
+        docCount--;
+        docTerms[doc] = null;
+        lengths[doc] = 0;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (maxDoc == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+        return maxDoc++;
+    }
+
+    /**
+     * Open-addressing doc number -> score map for one query. Sized up front from the
+     * number of postings scanned (an upper bound on distinct docs), so it never resizes.
+     */
+    private static final class ScoreTable {
+        private final int[] docs;
+        private final float[] scores;
+        private final int[] usedSlots;
+        private final int mask;
+        private int size;
+
+        ScoreTable(int maxEntries) {
+            int capacity = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+            docs = new int[capacity];
+            Arrays.fill(docs, -1);
+            scores = new float[capacity];
+            usedSlots = new int[maxEntries];
+            mask = capacity - 1;
+        }
+
+        void add(int doc, float score) {
+            int hash = doc * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (docs[slot] != -1 && docs[slot] != doc) {
+                slot = (slot + 1) & mask;
+            }
+            if (docs[slot] == -1) {
+                docs[slot] = doc;
+                usedSlots[size++] = slot;
+            }
+            scores[slot] += score;
+        }
+
+        void drainTo(int[] docsOut, float[] scoresOut) {
+            for (int i = 0; i < size; i++) {
+                docsOut[i] = docs[usedSlots[i]];
+                scoresOut[i] = scores[usedSlots[i]];
+            }
+        }
+    }
+
+    /** Unsorted posting list; queries accumulate scores per doc so order doesn't matter. */
+    private static class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] == doc) {
+                    size--;
+                    docs[i] = docs[size];
+                    freqs[i] = freqs[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
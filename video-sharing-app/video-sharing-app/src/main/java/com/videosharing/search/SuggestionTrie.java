@@ -0,0 +1,372 @@
+package com.videosharing.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over phrases (video titles and tags) ranked by views.
+ *
+ * Each phrase is inserted once per word it contains, so "funny cat video"
+ * is found by typing "fun", "cat v" or "vid". Every trie node keeps the top-K
+ * phrases of its subtree, which turns a lookup into a walk down the typed
+ * prefix followed by copying at most K strings.
+ *
+ * A phrase shared by several videos scores the sum of their views. Score
+ * increases (the common case: view flushes) patch the top-K lists along the
+ * phrase's paths in place; decreases and removals recompute those nodes from
+ * their children, which are already correct.
+ */
+public class SuggestionTrie {
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_WORD_STARTS = 8;
+
+    private final int topK;
+    private final Node root;
+    private final Map<String, Phrase> phrases = new HashMap<>();
+    private final Map<Long, List<String>> phrasesByVideo = new HashMap<>();
+    private final Map<Long, Long> viewsByVideo = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SuggestionTrie(int topK) {
+        this.topK = topK;
+        this.root = new Node(topK);
+    }
+
+    /** Adds the video's phrases, replacing whatever it contributed before. */
+    public void put(long videoId, List<String> videoPhrases, long views) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(videoId);
+            List<String> kept = new ArrayList<>();
+            for (String text : videoPhrases) {
+                if (text == null || text.isBlank() || kept.contains(text.trim())) {
+                    continue;
+                }
+                String display = text.trim();
+                kept.add(display);
+                Phrase phrase = phrases.get(display);
+                if (phrase == null) {
+                    phrase = new Phrase(display, keysFor(display));
+                    phrases.put(display, phrase);
+                    for (String key : phrase.keys) {
+                        insertTerminal(key, phrase);
+                    }
+                }
+                phrase.videos++;
+                raise(phrase, views);
+            }
+            if (!kept.isEmpty()) {
+                phrasesByVideo.put(videoId, kept);
+                viewsByVideo.put(videoId, views);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long videoId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(videoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Applies a view delta to every phrase of an indexed video; unknown ids are ignored. */
+    public void addViews(long videoId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<String> videoPhrases = phrasesByVideo.get(videoId);
+            if (videoPhrases == null) {
+                return;
+            }
+            viewsByVideo.merge(videoId, delta, Long::sum);
+            for (String text : videoPhrases) {
+                Phrase phrase = phrases.get(text);
+                if (delta > 0) {
+                    raise(phrase, delta);
+                } else {
+                    lower(phrase, -delta);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<String> result = new ArrayList<>();
+        if (key.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node != null) {
+                for (int i = 0; i < node.topSize && result.size() < limit; i++) {
+                    result.add(node.top[i].text);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return phrases.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(long videoId) {
+        List<String> videoPhrases = phrasesByVideo.remove(videoId);
+        Long views = viewsByVideo.remove(videoId);
+        if (videoPhrases == null) {
+            return;
+        }
+        for (String text : videoPhrases) {
+            Phrase phrase = phrases.get(text);
+            if (--phrase.videos == 0) {
+                phrases.remove(text);
+                phrase.score = -1; // sorts below everything while the paths are rebuilt
+                for (String key : phrase.keys) {
+                    removeTerminal(key, phrase);
+                }
+            } else {
+                lower(phrase, views);
+            }
+        }
+    }
+
+    private void raise(Phrase phrase, long delta) {
+        phrase.score += delta;
+        for (String key : phrase.keys) {
+            Node node = root;
+            node.offer(phrase);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+                node.offer(phrase);
+            }
+        }
+    }
+
+    private void lower(Phrase phrase, long delta) {
+        phrase.score = Math.max(0, phrase.score - delta);
+        for (String key : phrase.keys) {
+            recomputePath(key);
+        }
+    }
+
+    private void insertTerminal(String key, Phrase phrase) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i), topK);
+        }
+        node.terminals.add(phrase);
+    }
+
+    private void removeTerminal(String key, Phrase phrase) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        path[key.length()].terminals.remove(phrase);
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].recompute();
+            // Drop branches that no longer lead anywhere
+            if (i > 0 && path[i].topSize == 0 && path[i].childCount == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    // Bottom-up so each node merges children whose top-K is already correct
+    private void recomputePath(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].recompute();
+        }
+    }
+
+    private static List<String> keysFor(String display) {
+        String normalized = normalize(display).trim();
+        List<String> keys = new ArrayList<>();
+        int starts = 0;
+        for (int i = 0; i < normalized.length() && starts < MAX_WORD_STARTS; i++) {
+            if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                String key = normalized.substring(i, Math.min(normalized.length(), i + MAX_KEY_LENGTH));
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                }
+                starts++;
+            }
+        }
+        return keys;
+    }
+
+    /** Lower case, punctuation turned into single spaces, trimmed. */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        // Keep a trailing space so "cat " only matches phrases with a word after "cat"
+        if (space && sb.length() > 0) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    private static final class Phrase {
+        final String text;
+        final List<String> keys;
+        long score;
+        int videos;
+
+        Phrase(String text, List<String> keys) {
+            this.text = text;
+            this.keys = keys;
+        }
+    }
+
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        int childCount;
+        final List<Phrase> terminals = new ArrayList<>(1);
+        final Phrase[] top;
+        int topSize;
+
+        Node(int topK) {
+            this.top = new Phrase[topK];
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c, int topK) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, at, labels, at + 1, childCount - at);
+            System.arraycopy(children, at, children, at + 1, childCount - at);
+            Node node = new Node(topK);
+            labels[at] = c;
+            children[at] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, 0, childCount, c);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(labels, i + 1, labels, i, childCount - i - 1);
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+
+        // Score went up: move or insert the phrase without looking at the subtree
+        void offer(Phrase phrase) {
+            int at = -1;
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == phrase) {
+                    at = i;
+                    break;
+                }
+            }
+            if (at < 0) {
+                if (topSize < top.length) {
+                    at = topSize++;
+                } else if (phrase.score > top[topSize - 1].score) {
+                    at = topSize - 1;
+                } else {
+                    return;
+                }
+                top[at] = phrase;
+            }
+            while (at > 0 && top[at - 1].score < phrase.score) {
+                top[at] = top[at - 1];
+                top[--at] = phrase;
+            }
+        }
+
+        void recompute() {
+            Arrays.fill(top, 0, topSize, null);
+            topSize = 0;
+            for (Phrase phrase : terminals) {
+                merge(phrase);
+            }
+            for (int c = 0; c < childCount; c++) {
+                Node child = children[c];
+                for (int i = 0; i < child.topSize; i++) {
+                    merge(child.top[i]);
+                }
+            }
+        }
+
+        private void merge(Phrase phrase) {
+            if (phrase.score < 0) {
+                return;
+            }
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == phrase) {
+                    return; // reachable through more than one child key
+                }
+            }
+            offer(phrase);
+        }
+    }
+}
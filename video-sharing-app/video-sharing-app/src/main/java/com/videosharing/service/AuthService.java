@@ -8,16 +8,23 @@ import org.springframework.security.core.Authentication;
 
 public interface AuthService {
 
-    void register(RegisterRequest registerRequest);
+    void register(RegisterRequest registerRequest, String clientIp);
+
+    // Sends a fresh OTP to an account that hasn't been verified yet
+    void resendOtp(String email, String clientIp);
 
     void createAdmin(RegisterRequest registerRequest);
 
-    AuthResponse verifyOtp(String email, String otp);
+    AuthResponse verifyOtp(String email, String otp, String clientIp);
 
     AuthResponse login(AuthRequest authRequest);
 
+    // Rotates the refresh token: the presented one is revoked and a new pair is returned
     AuthResponse refreshToken(String refreshToken);
 
+    // Deletes expired refresh tokens and those of fully revoked sessions; returns rows removed
+    int purgeRefreshTokens();
+
     void logout(String refreshToken);
 
     User getCurrentUser();
@@ -6,6 +6,31 @@ public interface CloudStorageService {
 
     String uploadVideo(MultipartFile file, Long userId, String title);
 
+    // Uploads straight from a raw request body without spooling it to disk first
+    String uploadVideoStream(java.io.InputStream body, String contentType, String originalFilename, Long userId);
+
+    // Low-level multipart primitives for uploads that span several requests
+    String initiateMultipartUpload(String key, String contentType);
+
+    String uploadPart(String key, String uploadId, int partNumber, java.io.InputStream data, long size);
+
+    // Returns the public URL of the assembled object
+    String completeMultipartUpload(String key, String uploadId, java.util.Map<Integer, String> partETags);
+
+    void abortMultipartUpload(String key, String uploadId);
+
+    // Presigned URLs let clients move bytes to and from R2 without going through the app
+    String generatePresignedUploadUrl(String key, String contentType);
+
+    String generatePresignedPartUploadUrl(String key, String uploadId, int partNumber);
+
+    String generatePresignedDownloadUrl(String fileKey);
+
+    String getPublicUrl(String key);
+
+    // Stores server-generated content (thumbnails, playlists) and returns its public URL
+    String uploadBytes(String key, byte[] data, String contentType);
+
     String uploadProfilePicture(MultipartFile file, Long userId);
 
     String generateThumbnail(String videoUrl);
@@ -13,4 +38,14 @@ public interface CloudStorageService {
     void deleteVideo(String videoUrl);
 
     java.io.InputStream getFileStream(String fileKey);
+
+    // Ranged read, both offsets inclusive (same semantics as an HTTP byte range)
+    java.io.InputStream getFileStream(String fileKey, long start, long end);
+
+    long getFileLength(String fileKey);
+
+    // Uncached HEAD, for checking what a client actually uploaded through a presigned URL
+    com.videosharing.storage.StoredObject headObject(String key);
+
+    void deleteObject(String key);
 }
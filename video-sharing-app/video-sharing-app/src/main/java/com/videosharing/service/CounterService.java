@@ -0,0 +1,19 @@
+package com.videosharing.service;
+
+public interface CounterService {
+
+    enum Counter {
+        VIEWS,
+        LIKES,
+        DISLIKES,
+        SHARES
+    }
+
+    void recordVideo(Long videoId, Counter counter, long delta);
+
+    // ImageNews has no dislikes; DISLIKES deltas are ignored
+    void recordImageNews(Long imageNewsId, Counter counter, long delta);
+
+    // Writes all buffered deltas to the database
+    void flush();
+}
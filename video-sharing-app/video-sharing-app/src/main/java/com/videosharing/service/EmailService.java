@@ -1,6 +1,9 @@
 package com.videosharing.service;
 
 public interface EmailService {
+    // Queued in the caller's transaction; sent in the background once it commits
     void sendOtp(String email, String otp);
-}
 
+    // Sends queued mail that is due (new, retry or interrupted); called periodically
+    void dispatchDue();
+}
@@ -0,0 +1,27 @@
+package com.videosharing.service;
+
+import com.videosharing.model.entity.ImageNews;
+import com.videosharing.model.entity.User;
+import com.videosharing.model.entity.Video;
+
+/**
+ * Read-through cache for hot entity lookups by id. Returned entities are detached and shared
+ * between requests: read them, never modify or save them. Write paths load through the
+ * repository and call the matching evict method.
+ */
+public interface EntityCacheService {
+
+    // Uploader is fetched with the video
+    Video getVideo(Long videoId);
+
+    User getUser(Long userId);
+
+    // Uploader is fetched with the image news
+    ImageNews getImageNews(Long imageNewsId);
+
+    void evictVideo(Long videoId);
+
+    void evictUser(Long userId);
+
+    void evictImageNews(Long imageNewsId);
+}
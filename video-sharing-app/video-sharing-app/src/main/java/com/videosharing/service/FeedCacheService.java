@@ -0,0 +1,15 @@
+package com.videosharing.service;
+
+import java.util.function.Supplier;
+
+public interface FeedCacheService {
+
+    // Only the first feed.cache.max-pages pages of a feed are cached
+    boolean isCacheable(int page, int size);
+
+    // Serialized JSON for the key; on a miss the loader runs in a read-only transaction and its result is serialized
+    byte[] get(String key, Supplier<Object> loader);
+
+    // Drops every cached page once the surrounding transaction commits
+    void invalidate();
+}
@@ -12,8 +12,17 @@ public interface ImageNewsService {
     ImageNews uploadImageNews(Long userId, String title, String description, String location, String tags,
             List<MultipartFile> files) throws IOException;
 
+    List<com.videosharing.model.dto.DirectUploadTarget> createDirectUploadTargets(Long userId,
+            List<String> contentTypes);
+
+    ImageNews registerUploadedImageNews(Long userId, String title, String description, String location, String tags,
+            List<String> objectKeys);
+
     Page<ImageNews> getFeed(Pageable pageable, String location);
 
+    // Cursor (keyset) variant of getFeed for infinite scroll
+    com.videosharing.model.dto.FeedSlice<ImageNews> getFeedAfter(String cursor, int size, String location);
+
     ImageNews getImageNewsById(Long id);
 
     void approveImageNews(Long id);
@@ -26,6 +35,8 @@ public interface ImageNewsService {
 
     java.io.InputStream getImageStream(String imageUrl);
 
+    String getImageDownloadUrl(String imageUrl);
+
     // Interactions
     void likeImageNews(Long userId, Long id);
 
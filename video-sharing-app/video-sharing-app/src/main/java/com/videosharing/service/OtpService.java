@@ -0,0 +1,19 @@
+package com.videosharing.service;
+
+/**
+ * OTPs for account verification, kept out of the users table. Every method
+ * answers from memory; rate limits reject abusive callers with HTTP 429
+ * ({@link org.springframework.web.server.ResponseStatusException}) before
+ * any database work is done.
+ */
+public interface OtpService {
+
+    // Counts an OTP request against the email's and the client IP's limits
+    void checkIssueRate(String email, String clientIp);
+
+    // Generates and stores a fresh code for the email, replacing any earlier one
+    String issue(String email);
+
+    // Throws unless the code is valid; a valid code is consumed
+    void verify(String email, String otp, String clientIp);
+}
@@ -0,0 +1,22 @@
+package com.videosharing.service;
+
+import java.util.Map;
+
+/**
+ * Runs password hashing on a small dedicated pool instead of Tomcat request
+ * threads, so a burst of logins can use at most that pool's share of the CPU.
+ * When the pool and its queue are full, calls fail fast with HTTP 503
+ * ({@link org.springframework.web.server.ResponseStatusException}).
+ */
+public interface PasswordHashingService {
+
+    String encode(CharSequence rawPassword);
+
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+
+    // True when the hash uses an old algorithm id or a lower cost than configured (cheap, no hashing)
+    boolean needsRehash(String encodedPassword);
+
+    // Counts and latencies (ms) for encode/matches, plus queue depth and rejections
+    Map<String, Object> getMetrics();
+}
@@ -0,0 +1,17 @@
+package com.videosharing.service;
+
+import com.videosharing.model.entity.VideoReaction;
+
+public interface ReactionService {
+
+    // Idempotent: repeating the same reaction is a no-op, the opposite one switches it
+    void react(Long userId, Long videoId, VideoReaction.Kind kind);
+
+    // Removes whatever reaction the user has on the video, if any
+    void removeReaction(Long userId, Long videoId);
+
+    // Null when the user has not reacted
+    VideoReaction.Kind getReaction(Long userId, Long videoId);
+
+    void deleteVideoReactions(Long videoId);
+}
@@ -0,0 +1,29 @@
+package com.videosharing.service;
+
+import com.videosharing.model.dto.ResumableUploadInitRequest;
+import com.videosharing.model.dto.ResumableUploadStatus;
+import com.videosharing.model.entity.Video;
+
+import java.io.InputStream;
+
+public interface ResumableUploadService {
+
+    ResumableUploadStatus initUpload(Long userId, ResumableUploadInitRequest request);
+
+    // offset must be a multiple of the session chunk size; re-sending a chunk overwrites it
+    ResumableUploadStatus uploadChunk(Long userId, String uploadId, long offset, InputStream data, long size);
+
+    ResumableUploadStatus getStatus(Long userId, String uploadId);
+
+    Video completeUpload(Long userId, String uploadId);
+
+    // Same session, but the client PUTs every chunk straight to R2 using presigned part URLs
+    ResumableUploadStatus initDirectUpload(Long userId, ResumableUploadInitRequest request);
+
+    // Finalize callback for direct uploads: partETags maps part number (chunk index + 1) to the ETag R2 returned
+    Video completeDirectUpload(Long userId, String uploadId, java.util.Map<Integer, String> partETags);
+
+    void abortUpload(Long userId, String uploadId);
+
+    void cleanupStaleUploads();
+}
@@ -0,0 +1,24 @@
+package com.videosharing.service;
+
+import com.videosharing.model.entity.Video;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface SearchIndexService {
+
+    // True when search.engine=memory; otherwise every method is a no-op
+    boolean isEnabled();
+
+    // Adds or refreshes the video once the surrounding transaction commits
+    void indexVideo(Video video);
+
+    void removeVideo(Long videoId);
+
+    // Approved videos only, ranked by BM25
+    Page<Video> search(String query, Pageable pageable);
+
+    // All videos, also matching the uploader's username and email
+    Page<Video> adminSearch(String query, Pageable pageable);
+
+    void rebuild();
+}
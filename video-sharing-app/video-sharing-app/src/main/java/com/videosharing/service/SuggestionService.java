@@ -0,0 +1,20 @@
+package com.videosharing.service;
+
+import com.videosharing.model.entity.Video;
+
+import java.util.List;
+
+public interface SuggestionService {
+
+    List<String> suggest(String prefix, int limit);
+
+    // Adds an approved video's title and tags once the surrounding transaction commits
+    void addVideo(Video video);
+
+    void removeVideo(Long videoId);
+
+    // Fed from the counter flush so rankings follow views
+    void recordViews(Long videoId, long delta);
+
+    void rebuild();
+}
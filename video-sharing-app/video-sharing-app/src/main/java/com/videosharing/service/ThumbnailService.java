@@ -0,0 +1,12 @@
+package com.videosharing.service;
+
+public interface ThumbnailService {
+
+    // Queues thumbnail generation; runs after the current transaction commits, if any
+    void scheduleThumbnails(Long videoId);
+
+    void generateThumbnails(Long videoId);
+
+    // URL of the stored variant closest to the requested width
+    String resolveVariantUrl(String thumbnailUrl, Integer width);
+}
@@ -0,0 +1,19 @@
+package com.videosharing.service;
+
+import java.io.InputStream;
+
+public interface TranscodingService {
+
+    // Marks the video QUEUED and hands it to the worker pool once the current transaction commits
+    void scheduleTranscode(Long videoId);
+
+    void transcode(Long videoId);
+
+    // Re-submits QUEUED jobs that didn't fit in the worker queue; on startup also PROCESSING ones
+    void requeuePending(boolean includeInterrupted);
+
+    // path is relative to the video's HLS root, e.g. "master.m3u8" or "720p/seg_0001.ts"
+    InputStream getHlsStream(Long videoId, String path);
+
+    String getHlsDownloadUrl(Long videoId, String path);
+}
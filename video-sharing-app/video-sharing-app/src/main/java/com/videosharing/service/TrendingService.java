@@ -0,0 +1,14 @@
+package com.videosharing.service;
+
+import com.videosharing.model.entity.Video;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface TrendingService {
+
+    // Served from the last computed snapshot; never sorts per request
+    Page<Video> getTrending(Pageable pageable);
+
+    // Rescores every approved video and swaps in a new snapshot
+    void refresh();
+}
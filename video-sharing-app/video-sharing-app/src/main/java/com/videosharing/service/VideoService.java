@@ -14,8 +14,17 @@ public interface VideoService {
     Video uploadVideo(Long userId, VideoUploadRequest request, MultipartFile videoFile, MultipartFile thumbnail, String type)
             throws IOException;
 
+    Video uploadVideoStream(Long userId, VideoUploadRequest request, java.io.InputStream body, String contentType,
+            String fileName);
 
-    Page<Video> getFeed(Pageable pageable, String category, String location);
+    // Creates the Video row for an object that is already stored in R2
+    Video registerUploadedVideo(Long userId, VideoUploadRequest request, String videoUrl);
+
+    // Filters are optional and matched on normalized keys
+    Page<Video> getFeed(Pageable pageable, String category, String location, String tag);
+
+    // Cursor (keyset) variant of getFeed for infinite scroll: no count query, constant cost per page
+    com.videosharing.model.dto.FeedSlice<Video> getFeedAfter(String cursor, int size, String category, String location, String tag);
 
     Page<Video> search(String query, Pageable pageable);
 
@@ -31,6 +40,9 @@ public interface VideoService {
 
     void unlikeVideo(Long userId, Long videoId);
 
+    // LIKE, DISLIKE or NONE
+    String getUserReaction(Long userId, Long videoId);
+
     // Interactions
     void addComment(Long userId, Long videoId, String text);
     List<Comment> getComments(Long videoId);
@@ -50,5 +62,18 @@ public interface VideoService {
 
     java.io.InputStream getVideoStream(Long videoId);
 
+    java.io.InputStream getVideoStream(Long videoId, long start, long end);
+
+    long getVideoLength(Long videoId);
+
     java.io.InputStream getThumbnailStream(Long videoId);
+
+    // width picks the closest generated variant; ignored for uploaded or placeholder thumbnails
+    java.io.InputStream getThumbnailStream(Long videoId, Integer width);
+
+    // Short-lived presigned GET URLs so clients can fetch media from R2 directly
+    String getVideoDownloadUrl(Long videoId);
+
+    // Null while the video has no thumbnail yet
+    String getThumbnailDownloadUrl(Long videoId);
 }
\ No newline at end of file
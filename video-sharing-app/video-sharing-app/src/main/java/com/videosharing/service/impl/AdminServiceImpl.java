@@ -21,6 +21,21 @@ public class AdminServiceImpl implements AdminService {
     @Autowired
     private VideoRepository videoRepository;
 
+    @Autowired
+    private com.videosharing.service.SearchIndexService searchIndexService;
+
+    @Autowired
+    private com.videosharing.service.SuggestionService suggestionService;
+
+    @Autowired
+    private com.videosharing.repository.VideoLabelRepository videoLabelRepository;
+
+    @Autowired
+    private com.videosharing.service.FeedCacheService feedCacheService;
+
+    @Autowired
+    private com.videosharing.service.EntityCacheService entityCacheService;
+
     @Override
     public List<Video> getPendingVideos() {
         return videoRepository.findByStatus(Video.Status.PENDING);
@@ -41,6 +56,7 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(userId).orElseThrow();
         user.setIsActive(!user.getIsActive());
         userRepository.save(user);
+        entityCacheService.evictUser(userId);
     }
 
     @Override
@@ -48,6 +64,7 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(userId).orElseThrow();
         user.setIsActive(false);
         userRepository.save(user);
+        entityCacheService.evictUser(userId);
     }
 
     @Override
@@ -55,11 +72,13 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findById(userId).orElseThrow();
         user.setIsActive(true);
         userRepository.save(user);
+        entityCacheService.evictUser(userId);
     }
 
     @Override
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        entityCacheService.evictUser(userId);
     }
 
     @Override
@@ -74,11 +93,19 @@ public class AdminServiceImpl implements AdminService {
 
     @Override
     public void deleteVideo(Long videoId) {
+        videoLabelRepository.deleteByVideoId(videoId);
         videoRepository.deleteById(videoId);
+        entityCacheService.evictVideo(videoId);
+        searchIndexService.removeVideo(videoId);
+        suggestionService.removeVideo(videoId);
+        feedCacheService.invalidate();
     }
 
     @Override
     public org.springframework.data.domain.Page<Video> adminSearchVideos(String query, org.springframework.data.domain.Pageable pageable) {
+        if (searchIndexService.isEnabled()) {
+            return searchIndexService.adminSearch(query, pageable);
+        }
         return videoRepository.adminSearchVideos(query, pageable);
     }
 
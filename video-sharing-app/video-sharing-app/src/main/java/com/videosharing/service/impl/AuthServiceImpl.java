@@ -11,17 +11,24 @@ import com.videosharing.repository.RefreshTokenRepository;
 import com.videosharing.repository.UserRepository;
 import com.videosharing.service.AuthService;
 import com.videosharing.service.EmailService;
+import com.videosharing.service.EntityCacheService;
+import com.videosharing.service.OtpService;
+import com.videosharing.service.PasswordHashingService;
+import com.videosharing.util.JwtClaims;
 import com.videosharing.util.JwtUtil;
-import com.videosharing.util.OtpUtil;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Service
 @Transactional
@@ -34,7 +41,7 @@ public class AuthServiceImpl implements AuthService {
     private RefreshTokenRepository refreshTokenRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -42,15 +49,22 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OtpService otpService;
+
     // ================= REGISTER (SEND OTP) =================
     @Override
-    public void register(RegisterRequest registerRequest) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // rate limits and hashing run before any DB work
+    public void register(RegisterRequest registerRequest, String clientIp) {
         // Normalize email
         registerRequest.setEmail(registerRequest.getEmail().trim().toLowerCase());
-
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            throw new RuntimeException("User with this email already exists");
-        }
+        otpService.checkIssueRate(registerRequest.getEmail(), clientIp);
 
         User user = new User(
                 registerRequest.getEmail(),
@@ -60,22 +74,39 @@ public class AuthServiceImpl implements AuthService {
 
         user.setContactNumber(registerRequest.getContactNumber());
 
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(registerRequest.getPassword()));
         user.setRole(Role.USER);
         user.setIsActive(false); // OTP verify ke baad true hoga
 
-        // ✅ SAVE USER
-        User savedUser = userRepository.save(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new RuntimeException("User with this email already exists");
+            }
 
-        // ✅ GENERATE OTP
-        String otp = OtpUtil.generateOtp();
+            // ✅ SAVE USER
+            userRepository.save(user);
 
-        // 🔥 MOST IMPORTANT: OTP DB ME SAVE KARO
-        savedUser.setOtp(otp);
-        userRepository.save(savedUser);
+            // ✅ GENERATE OTP (kept in OtpService, not in the users table) AND SEND OTP EMAIL
+            // (queued in this transaction, sent in the background after commit)
+            emailService.sendOtp(user.getEmail(), otpService.issue(user.getEmail()));
+        });
+    }
 
-        // ✅ SEND OTP EMAIL
-        emailService.sendOtp(savedUser.getEmail(), otp);
+    // ================= RESEND OTP =================
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // rate limits run before any DB work
+    public void resendOtp(String email, String clientIp) {
+        String normalized = email.trim().toLowerCase();
+        otpService.checkIssueRate(normalized, clientIp);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByEmail(normalized)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (user.getIsActive()) {
+                throw new RuntimeException("Account is already verified");
+            }
+            emailService.sendOtp(user.getEmail(), otpService.issue(user.getEmail()));
+        });
     }
 
     @Override
@@ -92,7 +123,7 @@ public class AuthServiceImpl implements AuthService {
                 registerRequest.getFirstName(),
                 registerRequest.getLastName());
 
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(registerRequest.getPassword()));
         user.setRole(Role.ADMIN);
         user.setIsActive(true); // Admin is active by default
 
@@ -101,46 +132,40 @@ public class AuthServiceImpl implements AuthService {
 
     // ================= VERIFY OTP =================
     @Override
-    public AuthResponse verifyOtp(String email, String otp) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // wrong codes are rejected from memory
+    public AuthResponse verifyOtp(String email, String otp, String clientIp) {
         // Normalize email
-        email = email.trim().toLowerCase();
+        String normalized = email.trim().toLowerCase();
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // ✅ OTP CHECK (memory only; throws on wrong, expired or exhausted codes)
+        otpService.verify(normalized, otp, clientIp);
 
-        String dbOtp = user.getOtp(); // ✅ OTP FROM DB
-
-        if (dbOtp == null) {
-            throw new RuntimeException("OTP expired or not generated");
-        }
+        return transactionTemplate.execute(status -> activate(normalized));
+    }
 
-        if (!dbOtp.equals(otp)) {
-            throw new RuntimeException("Invalid OTP");
-        }
+    private AuthResponse activate(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
         // ✅ OTP VERIFIED
         user.setIsActive(true);
         user.setOtp(null); // OTP clear
         userRepository.save(user);
+        entityCacheService.evictUser(user.getId());
 
         String accessToken = jwtUtil.generateAccessToken(
                 user.getId(),
                 user.getEmail(),
                 user.getRole());
 
-        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
-
-        RefreshToken refreshTokenEntity = new RefreshToken(
-                user,
-                refreshToken,
-                LocalDateTime.now().plusDays(7));
-        refreshTokenRepository.save(refreshTokenEntity);
+        String refreshToken = issueRefreshToken(user, UUID.randomUUID().toString());
 
         return new AuthResponse(accessToken, refreshToken, convertToDto(user));
     }
 
     // ================= LOGIN =================
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // no DB connection held while the hash is checked
     public AuthResponse login(AuthRequest authRequest) {
 
         Authentication authentication = authenticate(
@@ -158,16 +183,11 @@ public class AuthServiceImpl implements AuthService {
                 user.getEmail(),
                 user.getRole());
 
-        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
-
-        refreshTokenRepository.findByUser(user)
-                .ifPresent(refreshTokenRepository::delete);
-
-        RefreshToken refreshTokenEntity = new RefreshToken(
-                user,
-                refreshToken,
-                LocalDateTime.now().plusDays(7));
-        refreshTokenRepository.save(refreshTokenEntity);
+        // One session per user: a fresh login drops every earlier refresh token
+        String refreshToken = transactionTemplate.execute(status -> {
+            refreshTokenRepository.deleteByUserId(user.getId());
+            return issueRefreshToken(user, UUID.randomUUID().toString());
+        });
 
         return new AuthResponse(accessToken, refreshToken, convertToDto(user));
     }
@@ -176,11 +196,10 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public void logout(String refreshToken) {
 
-        RefreshToken token = refreshTokenRepository.findByToken(refreshToken)
+        RefreshToken token = refreshTokenRepository.findByTokenHash(RefreshToken.hash(refreshToken))
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
-        token.setIsRevoked(true);
-        refreshTokenRepository.save(token);
+        refreshTokenRepository.revokeFamily(token.getFamilyId());
     }
 
     // ================= CURRENT USER =================
@@ -196,6 +215,7 @@ public class AuthServiceImpl implements AuthService {
 
     // ================= AUTHENTICATE =================
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Authentication authenticate(String email, String rawPassword) {
         // Normalize email
         email = email.trim().toLowerCase();
@@ -203,9 +223,11 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        // Hashing runs on the hashing pool; throws 503 when it is saturated
+        if (!passwordHashingService.matches(rawPassword, user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
+        rehashIfNeeded(user, rawPassword);
 
         return new UsernamePasswordAuthenticationToken(
                 user,
@@ -213,6 +235,30 @@ public class AuthServiceImpl implements AuthService {
                 user.getAuthorities());
     }
 
+    // Old or cheaper hashes are upgraded while the raw password is at hand. Best effort: the login
+    // already succeeded, so a busy pool or a concurrent password change just leaves it for next time
+    private void rehashIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        if (!passwordHashingService.needsRehash(oldHash)) {
+            return;
+        }
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = userRepository.updatePassword(user.getId(), newHash, oldHash);
+                if (rows > 0) {
+                    entityCacheService.evictUser(user.getId());
+                }
+                return rows;
+            });
+            if (updated != null && updated > 0) {
+                user.setPassword(newHash);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Password rehash skipped for user " + user.getId() + ": " + e.getMessage());
+        }
+    }
+
     // ================= DTO CONVERTER =================
     private UserDto convertToDto(User user) {
         UserDto userDto = new UserDto();
@@ -227,9 +273,62 @@ public class AuthServiceImpl implements AuthService {
         return userDto;
     }
 
+    // ================= REFRESH (ROTATE) =================
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // a detected reuse must stay revoked when we throw
     public AuthResponse refreshToken(String refreshToken) {
-        // TODO Auto-generated method stub
-        return null;
+        // Signature and expiry first: forged or stale tokens never reach the database
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parseAndValidate(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        if (claims.getType() != JwtClaims.Type.REFRESH) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        AuthResponse response = transactionTemplate.execute(status -> {
+            RefreshToken token = refreshTokenRepository.findByTokenHash(RefreshToken.hash(refreshToken))
+                    .orElse(null);
+            if (token == null || token.getExpiryDate().isBefore(LocalDateTime.now())) {
+                return null;
+            }
+            // Already rotated or revoked: someone is replaying a copy, so end the whole session
+            if (token.getIsRevoked() || refreshTokenRepository.revokeIfActive(token.getId()) == 0) {
+                refreshTokenRepository.revokeFamily(token.getFamilyId());
+                System.err.println("Refresh token reuse detected for user " + claims.getUserId()
+                        + ", session revoked");
+                return null;
+            }
+
+            User user = entityCacheService.getUser(token.getUser().getId());
+            if (!user.getIsActive()) {
+                refreshTokenRepository.revokeFamily(token.getFamilyId());
+                return null;
+            }
+
+            String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getRole());
+            String nextRefreshToken = issueRefreshToken(token.getUser(), token.getFamilyId());
+            return new AuthResponse(accessToken, nextRefreshToken, convertToDto(user));
+        });
+
+        if (response == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return response;
+    }
+
+    @Override
+    public int purgeRefreshTokens() {
+        return refreshTokenRepository.purge(LocalDateTime.now());
+    }
+
+    // Stores only the hash; the raw token goes back to the client and nowhere else
+    private String issueRefreshToken(User user, String familyId) {
+        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
+        LocalDateTime expiryDate = LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getRefreshExpirationMs()));
+        refreshTokenRepository.save(new RefreshToken(user, refreshToken, familyId, expiryDate));
+        return refreshToken;
     }
 }
@@ -6,16 +6,39 @@ import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.videosharing.service.CloudStorageService;
+import com.videosharing.storage.DiskChunkCache;
+import com.videosharing.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class CloudStorageServiceImpl implements CloudStorageService {
@@ -32,8 +55,35 @@ public class CloudStorageServiceImpl implements CloudStorageService {
     @Value("${cloudflare.r2.bucket-name}")
     private String bucketName;
 
+    // S3 multipart parts must be at least 5 MB (except the last one)
+    @Value("${storage.upload.part-size-mb:8}")
+    private int partSizeMb;
+
+    @Value("${storage.upload.concurrency:4}")
+    private int uploadConcurrency;
+
+    // Part buffers held in memory across all streaming uploads together (parts x part size bytes)
+    @Value("${storage.upload.max-buffered-parts:16}")
+    private int maxBufferedParts;
+
+    @Value("${storage.upload.max-size-mb:500}")
+    private long maxUploadSizeMb;
+
+    @Value("${storage.presign.upload-ttl-minutes:60}")
+    private long presignUploadTtlMinutes;
+
+    @Value("${storage.presign.download-ttl-minutes:10}")
+    private long presignDownloadTtlMinutes;
+
+    @Autowired
+    private DiskChunkCache chunkCache;
+
     private AmazonS3 s3Client;
 
+    private ExecutorService uploadExecutor;
+
+    private Semaphore partBuffers;
+
     @PostConstruct
     public void init() {
         AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
@@ -42,6 +92,18 @@ public class CloudStorageServiceImpl implements CloudStorageService {
                 .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, "auto"))
                 .withPathStyleAccessEnabled(true)
                 .build();
+
+        uploadExecutor = Executors.newFixedThreadPool(uploadConcurrency, r -> {
+            Thread thread = new Thread(r, "r2-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        partBuffers = new Semaphore(Math.max(1, maxBufferedParts));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
     }
 
     @Override
@@ -49,12 +111,16 @@ public class CloudStorageServiceImpl implements CloudStorageService {
         try {
             String fileName = userId + "/" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
 
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentLength(file.getSize());
-            metadata.setContentType(file.getContentType());
+            if (file.getSize() > partSizeBytes()) {
+                multipartUpload(fileName, file.getInputStream(), file.getContentType());
+            } else {
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(file.getSize());
+                metadata.setContentType(file.getContentType());
 
-            s3Client.putObject(new PutObjectRequest(bucketName, fileName, file.getInputStream(), metadata)
-                    .withCannedAcl(CannedAccessControlList.PublicRead));
+                s3Client.putObject(new PutObjectRequest(bucketName, fileName, file.getInputStream(), metadata)
+                        .withCannedAcl(CannedAccessControlList.PublicRead));
+            }
 
             // Return Public URL
             // Using the custom domain or constructing it manually implies knowledge of the
@@ -80,6 +146,108 @@ public class CloudStorageServiceImpl implements CloudStorageService {
         }
     }
 
+    @Override
+    public String uploadVideoStream(InputStream body, String contentType, String originalFilename, Long userId) {
+        try {
+            String fileName = userId + "/" + System.currentTimeMillis() + "_" + originalFilename;
+            multipartUpload(fileName, body, contentType);
+            return endpoint + "/" + bucketName + "/" + fileName;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to stream upload to Cloudflare R2", e);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        return s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key, metadata)
+                .withCannedACL(CannedAccessControlList.PublicRead)).getUploadId();
+    }
+
+    @Override
+    public String uploadPart(String key, String uploadId, int partNumber, InputStream data, long size) {
+        try {
+            UploadPartRequest part = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partNumber)
+                    .withInputStream(data)
+                    .withPartSize(size);
+            return s3Client.uploadPart(part).getETag();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to upload part " + partNumber + " to Cloudflare R2: " + key, e);
+        }
+    }
+
+    @Override
+    public String completeMultipartUpload(String key, String uploadId, java.util.Map<Integer, String> partETags) {
+        List<PartETag> etags = new ArrayList<>(partETags.size());
+        partETags.entrySet().stream()
+                .sorted(java.util.Map.Entry.comparingByKey())
+                .forEach(entry -> etags.add(new PartETag(entry.getKey(), entry.getValue())));
+        s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, etags));
+        return endpoint + "/" + bucketName + "/" + key;
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (Exception e) {
+            System.err.println("Failed to abort multipart upload " + uploadId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String generatePresignedUploadUrl(String key, String contentType) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, key, HttpMethod.PUT)
+                .withExpiration(expiresIn(presignUploadTtlMinutes))
+                .withContentType(contentType);
+        return s3Client.generatePresignedUrl(request).toString();
+    }
+
+    @Override
+    public String generatePresignedPartUploadUrl(String key, String uploadId, int partNumber) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, key, HttpMethod.PUT)
+                .withExpiration(expiresIn(presignUploadTtlMinutes));
+        request.addRequestParameter("uploadId", uploadId);
+        request.addRequestParameter("partNumber", String.valueOf(partNumber));
+        return s3Client.generatePresignedUrl(request).toString();
+    }
+
+    @Override
+    public String generatePresignedDownloadUrl(String fileKey) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucketName, resolveKey(fileKey),
+                HttpMethod.GET)
+                .withExpiration(expiresIn(presignDownloadTtlMinutes));
+        return s3Client.generatePresignedUrl(request).toString();
+    }
+
+    @Override
+    public String getPublicUrl(String key) {
+        return endpoint + "/" + bucketName + "/" + key;
+    }
+
+    private static Date expiresIn(long minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000);
+    }
+
+    @Override
+    public String uploadBytes(String key, byte[] data, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(data.length);
+        metadata.setContentType(contentType);
+
+        s3Client.putObject(new PutObjectRequest(bucketName, key, new ByteArrayInputStream(data), metadata)
+                .withCannedAcl(CannedAccessControlList.PublicRead));
+        // Thumbnails and HLS output are rewritten in place (regeneration, re-approval), so drop
+        // whatever this node cached for the old object
+        chunkCache.invalidate(key);
+        return endpoint + "/" + bucketName + "/" + key;
+    }
+
     @Override
     public String uploadProfilePicture(MultipartFile file, Long userId) {
         try {
@@ -108,21 +276,187 @@ public class CloudStorageServiceImpl implements CloudStorageService {
     @Override
     public void deleteVideo(String videoUrl) {
         // Implementation for delete would follow, extracting key from URL
+        if (videoUrl != null) {
+            chunkCache.invalidate(resolveKey(videoUrl));
+        }
     }
 
     @Override
     public java.io.InputStream getFileStream(String fileKey) {
-        try {
-            // If the provided key is a full URL, extract the relative path (key)
-            String key = fileKey;
-            String searchStr = bucketName + "/";
-            if (fileKey.contains(searchStr)) {
-                key = fileKey.substring(fileKey.indexOf(searchStr) + searchStr.length());
+        if (!chunkCache.isEnabled()) {
+            try {
+                return s3Client.getObject(bucketName, resolveKey(fileKey)).getObjectContent();
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to download from Cloudflare R2: " + fileKey, e);
             }
+        }
+        long length = getFileLength(fileKey);
+        if (length == 0) {
+            return java.io.InputStream.nullInputStream();
+        }
+        return getFileStream(fileKey, 0, length - 1);
+    }
+
+    @Override
+    public java.io.InputStream getFileStream(String fileKey, long start, long end) {
+        String key = resolveKey(fileKey);
+        if (!chunkCache.isEnabled()) {
+            return fetchRange(key, start, end);
+        }
+        return chunkCache.open(key, getFileLength(fileKey), start, end, this::fetchRange);
+    }
+
+    @Override
+    public long getFileLength(String fileKey) {
+        String key = resolveKey(fileKey);
+        Long cached = chunkCache.getCachedLength(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            long length = s3Client.getObjectMetadata(bucketName, key).getContentLength();
+            chunkCache.putLength(key, length);
+            return length;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read metadata from Cloudflare R2: " + fileKey, e);
+        }
+    }
 
-            return s3Client.getObject(bucketName, key).getObjectContent();
+    @Override
+    public StoredObject headObject(String key) {
+        try {
+            ObjectMetadata metadata = s3Client.getObjectMetadata(bucketName, key);
+            return new StoredObject(metadata.getContentLength(), metadata.getContentType());
         } catch (Exception e) {
-            throw new RuntimeException("Failed to download from Cloudflare R2: " + fileKey, e);
+            throw new RuntimeException("Failed to read metadata from Cloudflare R2: " + key, e);
+        }
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        chunkCache.invalidate(key);
+        try {
+            s3Client.deleteObject(bucketName, key);
+        } catch (Exception e) {
+            System.err.println("Failed to delete " + key + " from Cloudflare R2: " + e.getMessage());
+        }
+    }
+
+    private java.io.InputStream fetchRange(String key, long start, long end) {
+        try {
+            GetObjectRequest request = new GetObjectRequest(bucketName, key).withRange(start, end);
+            return s3Client.getObject(request).getObjectContent();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to download range " + start + "-" + end
+                    + " from Cloudflare R2: " + key, e);
+        }
+    }
+
+    /**
+     * Reads the stream part by part and uploads each part on the upload pool while
+     * the next one is still arriving. Every buffered part holds a permit from one
+     * pool shared by all uploads ({@code storage.upload.max-buffered-parts}), so
+     * heap use stays bounded no matter how many uploads run or how many bytes the
+     * clients send; uploads beyond that wait for a free buffer.
+     */
+    private void multipartUpload(String key, InputStream in, String contentType) throws IOException {
+        String uploadId = initiateMultipartUpload(key, contentType);
+
+        int partSize = partSizeBytes();
+        long maxBytes = maxUploadSizeMb * 1024 * 1024;
+        List<Future<PartETag>> parts = new ArrayList<>();
+        List<Runnable> permits = new ArrayList<>();
+        try {
+            long total = 0;
+            int partNumber = 1;
+            while (true) {
+                partBuffers.acquire();
+                Runnable permit = releaseOnce();
+                permits.add(permit);
+                byte[] buffer;
+                try {
+                    buffer = in.readNBytes(partSize);
+                } catch (IOException e) {
+                    permit.run();
+                    throw e;
+                }
+                if (buffer.length == 0) {
+                    permit.run();
+                    if (partNumber == 1) {
+                        throw new IOException("Upload body is empty");
+                    }
+                    break;
+                }
+                total += buffer.length;
+                if (total > maxBytes) {
+                    permit.run();
+                    throw new IOException("Upload exceeds the " + maxUploadSizeMb + " MB limit");
+                }
+
+                UploadPartRequest part = new UploadPartRequest()
+                        .withBucketName(bucketName)
+                        .withKey(key)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber++)
+                        .withInputStream(new ByteArrayInputStream(buffer))
+                        .withPartSize(buffer.length);
+                parts.add(uploadExecutor.submit(() -> {
+                    try {
+                        return s3Client.uploadPart(part).getPartETag();
+                    } finally {
+                        permit.run();
+                    }
+                }));
+
+                if (buffer.length < partSize) {
+                    break;
+                }
+            }
+
+            List<PartETag> etags = new ArrayList<>(parts.size());
+            for (Future<PartETag> future : parts) {
+                etags.add(future.get());
+            }
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, etags));
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, parts, permits);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, parts, permits);
+            throw new IOException("Upload interrupted", e);
+        } catch (ExecutionException e) {
+            abort(key, uploadId, parts, permits);
+            throw new IOException("Failed to upload part to Cloudflare R2", e.getCause());
+        }
+    }
+
+    // A part cancelled before it started never reaches its finally block, so its permit is returned here
+    private void abort(String key, String uploadId, List<Future<PartETag>> parts, List<Runnable> permits) {
+        parts.forEach(part -> part.cancel(true));
+        permits.forEach(Runnable::run);
+        abortMultipartUpload(key, uploadId);
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                partBuffers.release();
+            }
+        };
+    }
+
+    private int partSizeBytes() {
+        return Math.max(5, partSizeMb) * 1024 * 1024;
+    }
+
+    // If the provided key is a full URL, extract the relative path (key)
+    private String resolveKey(String fileKey) {
+        String searchStr = bucketName + "/";
+        if (fileKey.contains(searchStr)) {
+            return fileKey.substring(fileKey.indexOf(searchStr) + searchStr.length());
         }
+        return fileKey;
     }
 }
@@ -0,0 +1,149 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.counter.CounterBuffer;
+import com.videosharing.repository.ImageNewsRepository;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.service.CounterService;
+import com.videosharing.service.SuggestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-behind counters: clicks only touch an in-memory {@link CounterBuffer},
+ * and {@link #flush()} (driven by CounterFlushScheduler) applies the summed
+ * deltas as one JDBC batch of relative UPDATEs per table. Relative updates make
+ * the flush safe to run on several nodes at once.
+ *
+ * With {@code counters.write-behind.enabled=false} every click is applied
+ * immediately through the repositories' single-statement {@code addCounters}.
+ */
+@Service
+public class CounterServiceImpl implements CounterService {
+
+    private static final int SLOTS = Counter.values().length;
+
+    // Likes/dislikes can receive negative deltas (unlike); never let them go below zero
+    private static final String VIDEO_SQL = "UPDATE videos SET views = views + ?, "
+            + "likes_count = GREATEST(likes_count + ?, 0), "
+            + "dislikes_count = GREATEST(dislikes_count + ?, 0), "
+            + "share_count = share_count + ? WHERE id = ?";
+
+    private static final String IMAGE_NEWS_SQL = "UPDATE image_news SET views = views + ?, "
+            + "likes_count = GREATEST(likes_count + ?, 0), "
+            + "share_count = share_count + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private ImageNewsRepository imageNewsRepository;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Value("${counters.write-behind.enabled:true}")
+    private boolean writeBehind;
+
+    private final CounterBuffer videoCounters = new CounterBuffer(SLOTS);
+    private final CounterBuffer imageNewsCounters = new CounterBuffer(SLOTS);
+
+    @Override
+    public void recordVideo(Long videoId, Counter counter, long delta) {
+        if (writeBehind) {
+            videoCounters.add(videoId, counter.ordinal(), delta);
+            return;
+        }
+        int d = (int) delta;
+        videoRepository.addCounters(videoId,
+                counter == Counter.VIEWS ? delta : 0,
+                counter == Counter.LIKES ? d : 0,
+                counter == Counter.DISLIKES ? d : 0,
+                counter == Counter.SHARES ? d : 0);
+        if (counter == Counter.VIEWS) {
+            suggestionService.recordViews(videoId, delta);
+        }
+    }
+
+    @Override
+    public void recordImageNews(Long imageNewsId, Counter counter, long delta) {
+        if (counter == Counter.DISLIKES) {
+            return;
+        }
+        if (writeBehind) {
+            imageNewsCounters.add(imageNewsId, counter.ordinal(), delta);
+            return;
+        }
+        int d = (int) delta;
+        imageNewsRepository.addCounters(imageNewsId,
+                counter == Counter.VIEWS ? delta : 0,
+                counter == Counter.LIKES ? d : 0,
+                counter == Counter.SHARES ? d : 0);
+    }
+
+    @Override
+    public synchronized void flush() {
+        Map<Long, long[]> videos = videoCounters.drain();
+        if (!videos.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(videos.size());
+            videos.forEach((id, d) -> args.add(new Object[] {
+                    d[Counter.VIEWS.ordinal()], d[Counter.LIKES.ordinal()], d[Counter.DISLIKES.ordinal()],
+                    d[Counter.SHARES.ordinal()], id }));
+            if (applyBatch(VIDEO_SQL, args, videoCounters, videos, "Video")) {
+                videos.forEach((id, d) -> suggestionService.recordViews(id, d[Counter.VIEWS.ordinal()]));
+            }
+        }
+
+        Map<Long, long[]> imageNews = imageNewsCounters.drain();
+        if (!imageNews.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(imageNews.size());
+            imageNews.forEach((id, d) -> args.add(new Object[] {
+                    d[Counter.VIEWS.ordinal()], d[Counter.LIKES.ordinal()], d[Counter.SHARES.ordinal()], id }));
+            applyBatch(IMAGE_NEWS_SQL, args, imageNewsCounters, imageNews, "Image news");
+        }
+    }
+
+    /**
+     * Runs one batch in its own transaction so it applies all-or-nothing. The deltas go back into the
+     * buffer only when the batch itself failed and was rolled back; if the commit fails its outcome is
+     * unknown, and re-applying could count the same clicks twice, so they are dropped instead.
+     */
+    private boolean applyBatch(String sql, List<Object[]> args, CounterBuffer buffer, Map<Long, long[]> deltas,
+            String what) {
+        boolean[] applied = { false };
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(sql, args);
+                applied[0] = true;
+            });
+            return true;
+        } catch (RuntimeException e) {
+            if (applied[0]) {
+                System.err.println(what + " counter flush commit failed, dropping " + deltas.size()
+                        + " entries: " + e.getMessage());
+            } else {
+                buffer.restore(deltas);
+                System.err.println(what + " counter flush failed, will retry: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
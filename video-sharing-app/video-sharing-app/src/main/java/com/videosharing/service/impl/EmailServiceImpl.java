@@ -1,24 +1,203 @@
 package com.videosharing.service.impl;
 
+import com.videosharing.model.entity.OutboundEmail;
+import com.videosharing.repository.OutboundEmailRepository;
 import com.videosharing.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox-based mail delivery. Callers only insert an {@link OutboundEmail}
+ * row, so a request never waits on SMTP or holds a database connection
+ * while the mail server is slow. After commit the row is handed to a small
+ * bounded pool; anything the pool can't take right away, plus retries and
+ * sends interrupted by a restart, is picked up by {@link #dispatchDue()}.
+ *
+ * Due rows are claimed one by one with a conditional UPDATE and sent in
+ * batches through a single {@code JavaMailSender.send(...)} call, which uses
+ * one SMTP connection for the whole batch. Failures are retried with
+ * exponential backoff up to {@code mail.outbox.max-attempts}.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
+    private static final String OTP_SUBJECT = "Your OTP Code";
+
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private OutboundEmailRepository outboundEmailRepository;
+
+    @Value("${mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${mail.outbox.queue-size:100}")
+    private int queueSize;
+
+    @Value("${mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+
+    @Value("${mail.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    @Value("${mail.outbox.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${mail.outbox.failed-retention-hours:24}")
+    private long failedRetentionHours;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "mail-dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
     @Override
     public void sendOtp(String toEmail, String otp) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(toEmail);
-        message.setSubject("Your OTP Code");
-        message.setText("Your OTP is: " + otp + "\nThis OTP is valid for 5 minutes.");
+        // A new code replaces the previous one, so an older code still waiting in the outbox is useless
+        outboundEmailRepository.deletePending(toEmail, OTP_SUBJECT);
+        enqueue(toEmail, OTP_SUBJECT, "Your OTP is: " + otp + "\nThis OTP is valid for 5 minutes.");
+    }
+
+    private void enqueue(String to, String subject, String body) {
+        Long id = outboundEmailRepository.save(new OutboundEmail(to, subject, body)).getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(List.of(id));
+                }
+            });
+        } else {
+            submit(List.of(id));
+        }
+    }
+
+    @Override
+    public void dispatchDue() {
+        LocalDateTime now = LocalDateTime.now();
+        outboundEmailRepository.releaseStale(now.minusNanos(staleAfterMs * 1_000_000));
+        outboundEmailRepository.deleteFailedBefore(now.minusHours(failedRetentionHours));
+
+        List<Long> due = outboundEmailRepository.findDueIds(now, PageRequest.of(0, batchSize * workers));
+        for (int from = 0; from < due.size(); from += batchSize) {
+            submit(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+    }
+
+    private void submit(List<Long> ids) {
+        List<Long> batch = new ArrayList<>(ids);
+        try {
+            executor.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            // Pool is saturated; the rows stay PENDING and the next dispatchDue() sends them
+            System.err.println("Mail dispatcher busy, " + batch.size() + " mail(s) left for the next poll");
+        }
+    }
+
+    private void send(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (outboundEmailRepository.claim(id, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        List<OutboundEmail> emails = outboundEmailRepository.findAllById(claimed);
+        SimpleMailMessage[] messages = new SimpleMailMessage[emails.size()];
+        for (int i = 0; i < emails.size(); i++) {
+            OutboundEmail email = emails.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            messages[i] = message;
+        }
+
+        Map<Object, Exception> failed = Collections.emptyMap();
+        Exception batchError = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // An empty map means every message was accepted and only closing the connection failed
+            failed = e.getFailedMessages();
+            batchError = failed.isEmpty() ? null : e;
+        } catch (MailException e) {
+            // Authentication/connection problems: nothing in the batch went out
+            batchError = e;
+        }
+
+        List<OutboundEmail> sent = new ArrayList<>(emails.size());
+        for (int i = 0; i < emails.size(); i++) {
+            OutboundEmail email = emails.get(i);
+            Exception error = failed.isEmpty() ? batchError : failed.get(messages[i]);
+            if (error == null) {
+                sent.add(email);
+            } else {
+                recordFailure(email, error);
+            }
+        }
+        outboundEmailRepository.deleteAllInBatch(sent);
+    }
+
+    private void recordFailure(OutboundEmail email, Exception error) {
+        int attempts = email.getAttempts() + 1;
+        String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+        if (message.length() > 500) {
+            message = message.substring(0, 500);
+        }
 
-        mailSender.send(message);
+        if (attempts >= maxAttempts) {
+            System.err.println("Giving up on mail " + email.getId() + " to " + email.getRecipient() + ": " + message);
+            outboundEmailRepository.recordFailure(email.getId(), OutboundEmail.Status.FAILED, attempts,
+                    email.getNextAttemptAt(), message);
+            return;
+        }
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+        outboundEmailRepository.recordFailure(email.getId(), OutboundEmail.Status.PENDING, attempts,
+                LocalDateTime.now().plusNanos(delay * 1_000_000), message);
     }
 }
@@ -0,0 +1,67 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.config.CacheConfig;
+import com.videosharing.model.entity.ImageNews;
+import com.videosharing.model.entity.User;
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.ImageNewsRepository;
+import com.videosharing.repository.UserRepository;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.service.EntityCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches are configured in {@link CacheConfig}. Misses are not cached, so a
+ * lookup for a missing id throws every time instead of remembering the miss.
+ */
+@Service
+public class EntityCacheServiceImpl implements EntityCacheService {
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageNewsRepository imageNewsRepository;
+
+    @Override
+    @Cacheable(CacheConfig.VIDEOS)
+    public Video getVideo(Long videoId) {
+        return videoRepository.findWithUserById(videoId)
+                .orElseThrow(() -> new RuntimeException("Video not found"));
+    }
+
+    @Override
+    @Cacheable(CacheConfig.USERS)
+    public User getUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    @Override
+    @Cacheable(CacheConfig.IMAGE_NEWS)
+    public ImageNews getImageNews(Long imageNewsId) {
+        return imageNewsRepository.findWithUserById(imageNewsId)
+                .orElseThrow(() -> new RuntimeException("Image news not found"));
+    }
+
+    @Override
+    @CacheEvict(CacheConfig.VIDEOS)
+    public void evictVideo(Long videoId) {
+    }
+
+    @Override
+    @CacheEvict(CacheConfig.USERS)
+    public void evictUser(Long userId) {
+    }
+
+    @Override
+    @CacheEvict(CacheConfig.IMAGE_NEWS)
+    public void evictImageNews(Long imageNewsId) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.videosharing.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.videosharing.service.FeedCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Holds the hottest feed pages as ready-to-send JSON bytes, so a hit costs
+ * neither a connection, JPA nor Jackson.
+ *
+ * Approve/reject/delete clear everything (they are rare next to feed reads).
+ * A generation number guards against a load that started before an
+ * invalidation storing its now-stale result afterwards, and the short TTL
+ * bounds staleness of counters and of changes made on other nodes. Concurrent
+ * misses on one key share a single load.
+ */
+@Service
+public class FeedCacheServiceImpl implements FeedCacheService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${feed.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.cache.max-pages:3}")
+    private int maxPages;
+
+    @Value("${feed.cache.max-page-size:50}")
+    private int maxPageSize;
+
+    @Value("${feed.cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${feed.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private TransactionTemplate readOnlyTx;
+    private Map<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private static final class Entry {
+        final byte[] json;
+        final long expiresAt;
+
+        Entry(byte[] json, long expiresAt) {
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public boolean isCacheable(int page, int size) {
+        return enabled && page >= 0 && page < maxPages && size > 0 && size <= maxPageSize;
+    }
+
+    @Override
+    public byte[] get(String key, Supplier<Object> loader) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            return entry.json;
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            long startedAt = generation.get();
+            // Serialize inside the transaction so lazy associations can still load
+            byte[] json = readOnlyTx.execute(status -> serialize(loader.get()));
+            synchronized (entries) {
+                if (generation.get() == startedAt) {
+                    entries.put(key, new Entry(json, System.currentTimeMillis() + ttlSeconds * 1000));
+                }
+            }
+            mine.complete(json);
+            return json;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize feed page", e);
+        }
+    }
+}
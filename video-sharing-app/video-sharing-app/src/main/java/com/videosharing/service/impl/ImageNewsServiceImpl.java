@@ -1,22 +1,34 @@
 package com.videosharing.service.impl;
 
+import com.videosharing.model.dto.DirectUploadTarget;
+import com.videosharing.model.dto.FeedCursor;
+import com.videosharing.model.dto.FeedSlice;
 import com.videosharing.model.entity.ImageNews;
 import com.videosharing.model.entity.User;
 import com.videosharing.repository.ImageNewsRepository;
 import com.videosharing.repository.UserRepository;
 import com.videosharing.service.CloudStorageService;
+import com.videosharing.service.CounterService;
+import com.videosharing.service.EntityCacheService;
 import com.videosharing.service.ImageNewsService;
+import com.videosharing.storage.StoredObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Service
 @Transactional
@@ -31,6 +43,19 @@ public class ImageNewsServiceImpl implements ImageNewsService {
     @Autowired
     private CloudStorageService cloudStorageService;
 
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Presigned PUTs can't cap the body size, so uploaded images are checked against this afterwards
+    @Value("${storage.presign.max-image-size-mb:10}")
+    private long maxImageSizeMb;
+
     @Override
     public ImageNews uploadImageNews(Long userId, String title, String description, String location, String tags,
             List<MultipartFile> files) throws IOException {
@@ -54,6 +79,81 @@ public class ImageNewsServiceImpl implements ImageNewsService {
             }
         }
 
+        return saveNewImageNews(user, title, description, location, tags, imageUrls);
+    }
+
+    @Override
+    public List<DirectUploadTarget> createDirectUploadTargets(Long userId, List<String> contentTypes) {
+        if (contentTypes == null || contentTypes.isEmpty()) {
+            throw new IllegalArgumentException("At least one image is required");
+        }
+        if (contentTypes.size() > 5) {
+            throw new IllegalArgumentException("Maximum 5 images allowed");
+        }
+
+        List<DirectUploadTarget> targets = new ArrayList<>();
+        for (int i = 0; i < contentTypes.size(); i++) {
+            String contentType = contentTypes.get(i);
+            if (contentType == null || !contentType.startsWith("image/")) {
+                throw new IllegalArgumentException("Only image/* uploads are allowed");
+            }
+            String key = newsImageKey(userId, System.currentTimeMillis(), i);
+            targets.add(new DirectUploadTarget(key, cloudStorageService.generatePresignedUploadUrl(key, contentType)));
+        }
+        return targets;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // no DB connection held during the R2 round trips
+    public ImageNews registerUploadedImageNews(Long userId, String title, String description, String location,
+            String tags, List<String> objectKeys) {
+        if (objectKeys == null || objectKeys.isEmpty()) {
+            throw new IllegalArgumentException("At least one image is required");
+        }
+        if (objectKeys.size() > 5) {
+            throw new IllegalArgumentException("Maximum 5 images allowed");
+        }
+
+        // Only keys in the exact format createDirectUploadTargets issues to this user: anything else the
+        // user owns (their videos) would be deleted from R2 along with the news later on
+        Pattern issuedKey = Pattern.compile(Pattern.quote(userId + "/") + "\\d+_news_[0-4]");
+        List<String> imageUrls = new ArrayList<>();
+        for (String key : objectKeys) {
+            if (key == null || !issuedKey.matcher(key).matches()) {
+                throw new IllegalArgumentException("Invalid object key: " + key);
+            }
+            if (imageUrls.contains(cloudStorageService.getPublicUrl(key))) {
+                throw new IllegalArgumentException("Duplicate object key: " + key);
+            }
+            StoredObject object = cloudStorageService.headObject(key); // fails if the client never uploaded it
+            if (object.getContentType() == null || !object.getContentType().startsWith("image/")
+                    || object.getSize() > maxImageSizeMb * 1024 * 1024) {
+                cloudStorageService.deleteObject(key);
+                throw new IllegalArgumentException("Object " + key + " is not an image of at most "
+                        + maxImageSizeMb + " MB");
+            }
+            imageUrls.add(cloudStorageService.getPublicUrl(key));
+        }
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            // An image already attached to a news item would be deleted from R2 along with either of them
+            for (String url : imageUrls) {
+                if (imageNewsRepository.existsByImageUrlsContaining(url)) {
+                    throw new IllegalArgumentException("Image is already used by another news item: " + url);
+                }
+            }
+            return saveNewImageNews(user, title, description, location, tags, imageUrls);
+        });
+    }
+
+    private static String newsImageKey(Long userId, long timestamp, int index) {
+        return userId + "/" + timestamp + "_news_" + index;
+    }
+
+    private ImageNews saveNewImageNews(User user, String title, String description, String location, String tags,
+            List<String> imageUrls) {
         ImageNews news = new ImageNews();
         news.setUser(user);
         news.setTitle(title);
@@ -74,26 +174,49 @@ public class ImageNewsServiceImpl implements ImageNewsService {
         return imageNewsRepository.findByFilters(null, location, pageable);
     }
 
+    @Override
+    public FeedSlice<ImageNews> getFeedAfter(String cursor, int size, String location) {
+        FeedCursor after = FeedCursor.decode(cursor);
+        // Same visibility as getFeed (PENDING included)
+        Slice<ImageNews> slice = imageNewsRepository.findFeedAfter(null, location,
+                after.getCreatedAt(), after.getId(), PageRequest.of(0, size));
+
+        List<ImageNews> items = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            ImageNews last = items.get(items.size() - 1);
+            next = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedSlice<>(items, next, slice.hasNext());
+    }
+
     @Override
     public ImageNews getImageNewsById(Long id) {
+        // Shared cached copy; approve/reject/delete load their own managed entity
+        return entityCacheService.getImageNews(id);
+    }
+
+    private ImageNews loadImageNewsForUpdate(Long id) {
         return imageNewsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Image news not found"));
     }
 
     @Override
     public void approveImageNews(Long id) {
-        ImageNews news = getImageNewsById(id);
+        ImageNews news = loadImageNewsForUpdate(id);
         news.setStatus(ImageNews.Status.APPROVED);
         news.setExpiresAt(LocalDateTime.now().plusDays(6));
         imageNewsRepository.save(news);
+        entityCacheService.evictImageNews(id);
     }
 
     @Override
     public void rejectImageNews(Long id, String reason) {
-        ImageNews news = getImageNewsById(id);
+        ImageNews news = loadImageNewsForUpdate(id);
         news.setStatus(ImageNews.Status.REJECTED);
         news.setRejectionReason(reason);
         imageNewsRepository.save(news);
+        entityCacheService.evictImageNews(id);
     }
 
     @Override
@@ -103,7 +226,7 @@ public class ImageNewsServiceImpl implements ImageNewsService {
 
     @Override
     public void deleteImageNews(Long id) {
-        ImageNews news = getImageNewsById(id);
+        ImageNews news = loadImageNewsForUpdate(id);
         if (news.getImageUrls() != null && !news.getImageUrls().isEmpty()) {
             String[] urls = news.getImageUrls().split(",");
             for (String url : urls) {
@@ -111,6 +234,7 @@ public class ImageNewsServiceImpl implements ImageNewsService {
             }
         }
         imageNewsRepository.delete(news);
+        entityCacheService.evictImageNews(id);
     }
 
     @Override
@@ -134,23 +258,25 @@ public class ImageNewsServiceImpl implements ImageNewsService {
     }
 
     @Override
+    public String getImageDownloadUrl(String imageUrl) {
+        return cloudStorageService.generatePresignedDownloadUrl(imageUrl);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // buffered, no DB work
     public void likeImageNews(Long userId, Long id) {
-        ImageNews news = getImageNewsById(id);
-        news.setLikesCount(news.getLikesCount() + 1);
-        imageNewsRepository.save(news);
+        counterService.recordImageNews(id, CounterService.Counter.LIKES, 1);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // buffered, no DB work
     public void incrementViewCount(Long id) {
-        ImageNews news = getImageNewsById(id);
-        news.setViews(news.getViews() + 1);
-        imageNewsRepository.save(news);
+        counterService.recordImageNews(id, CounterService.Counter.VIEWS, 1);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // buffered, no DB work
     public void incrementShareCount(Long id) {
-        ImageNews news = getImageNewsById(id);
-        news.setShareCount(news.getShareCount() + 1);
-        imageNewsRepository.save(news);
+        counterService.recordImageNews(id, CounterService.Counter.SHARES, 1);
     }
 }
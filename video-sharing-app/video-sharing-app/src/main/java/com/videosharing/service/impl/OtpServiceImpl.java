@@ -0,0 +1,86 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.otp.OtpStore;
+import com.videosharing.otp.RateLimiter;
+import com.videosharing.service.OtpService;
+import com.videosharing.util.OtpUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class OtpServiceImpl implements OtpService {
+
+    @Autowired
+    private OtpStore otpStore;
+
+    @Value("${otp.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${otp.rate-limit.window-seconds:900}")
+    private long windowSeconds;
+
+    @Value("${otp.rate-limit.issue-per-email:3}")
+    private int issuePerEmail;
+
+    @Value("${otp.rate-limit.per-ip:30}")
+    private int perIp;
+
+    @Value("${otp.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private RateLimiter emailLimiter;
+    private RateLimiter ipLimiter;
+
+    @PostConstruct
+    public void init() {
+        emailLimiter = new RateLimiter(issuePerEmail, windowSeconds * 1000, maxKeys);
+        ipLimiter = new RateLimiter(perIp, windowSeconds * 1000, maxKeys);
+    }
+
+    @Override
+    public void checkIssueRate(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        checkIp(clientIp, now);
+        if (!emailLimiter.tryAcquire(email, now)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many OTP requests for this email, try again later");
+        }
+    }
+
+    @Override
+    public String issue(String email) {
+        String otp = OtpUtil.generateOtp();
+        otpStore.put(email, otp, System.currentTimeMillis() + ttlSeconds * 1000);
+        return otp;
+    }
+
+    @Override
+    public void verify(String email, String otp, String clientIp) {
+        long now = System.currentTimeMillis();
+        checkIp(clientIp, now);
+        switch (otpStore.verify(email, otp, maxAttempts, now)) {
+            case VALID:
+                return;
+            case INVALID:
+                throw new RuntimeException("Invalid OTP");
+            case TOO_MANY_ATTEMPTS:
+                throw new RuntimeException("Too many wrong attempts, request a new OTP");
+            default:
+                throw new RuntimeException("OTP expired or not generated");
+        }
+    }
+
+    private void checkIp(String clientIp, long now) {
+        if (clientIp != null && !ipLimiter.tryAcquire(clientIp, now)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, try again later");
+        }
+    }
+}
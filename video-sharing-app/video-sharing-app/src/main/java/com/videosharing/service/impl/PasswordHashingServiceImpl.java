@@ -0,0 +1,153 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.service.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // 0 = half the available cores (at least one)
+    @Value("${security.hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.hashing.queue-size:32}")
+    private int queueSize;
+
+    // Upper bound on queue wait plus hashing; the caller gets a 503 after that
+    @Value("${security.hashing.timeout-ms:10000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer = new Timer();
+    private final Timer matchesTimer = new Timer();
+    private final LongAdder rejected = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("encode", encodeTimer.snapshot());
+        metrics.put("matches", matchesTimer.snapshot());
+        metrics.put("poolSize", executor.getMaximumPoolSize());
+        metrics.put("active", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("queueCapacity", queueSize);
+        metrics.put("rejected", rejected.sum());
+        return metrics;
+    }
+
+    private <T> T run(Callable<T> task, Timer timer) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    timer.record(started - submitted, System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please try again");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please try again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Password hashing failed", cause);
+        }
+    }
+
+    // Queue wait and hashing time, kept apart so back-pressure shows up separately from cost
+    private static final class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long waitedNanos, long tookNanos) {
+            count.increment();
+            totalNanos.add(tookNanos);
+            waitNanos.add(waitedNanos);
+            maxNanos.accumulateAndGet(tookNanos, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", n);
+            snapshot.put("avgMs", n == 0 ? 0.0 : totalNanos.sum() / 1e6 / n);
+            snapshot.put("maxMs", maxNanos.get() / 1e6);
+            snapshot.put("avgQueueWaitMs", n == 0 ? 0.0 : waitNanos.sum() / 1e6 / n);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.model.entity.VideoReaction;
+import com.videosharing.reaction.ReactionCache;
+import com.videosharing.repository.VideoReactionRepository;
+import com.videosharing.service.CounterService;
+import com.videosharing.service.ReactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Per-user like/dislike ledger. The {@code video_reactions} unique key decides
+ * whether a click changes anything, and counters move only when a row is
+ * inserted, flipped or deleted, so they stay exact under retries and spam.
+ *
+ * Not transactional at class level on purpose: answers served from the
+ * {@link ReactionCache} never borrow a connection. The cache only sees this
+ * node's writes, so it is a read hint and nothing more: every like, dislike and
+ * removal runs its conditional statement against the DB (they are idempotent),
+ * cached answers expire after {@code reactions.recent-ttl-seconds}, and a Bloom
+ * "no" skips the query while {@code reactions.bloom.trust-negatives} is on, which
+ * is the default because the app runs as a single node (see DEPLOYMENT.md).
+ * Turn it off before running more than one node.
+ */
+@Service
+public class ReactionServiceImpl implements ReactionService {
+
+    private static final int WARM_BATCH = 10_000;
+
+    @Autowired
+    private VideoReactionRepository reactionRepository;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reactions.bloom.expected-entries:1000000}")
+    private long expectedEntries;
+
+    @Value("${reactions.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${reactions.recent-entries:100000}")
+    private int recentEntries;
+
+    @Value("${reactions.recent-ttl-seconds:30}")
+    private long recentTtlSeconds;
+
+    @Value("${reactions.bloom.trust-negatives:true}")
+    private boolean trustBloomNegatives;
+
+    private ReactionCache cache;
+
+    // Until the filter holds every stored pair, its "no" answers can't be trusted
+    private volatile boolean warmed;
+
+    @PostConstruct
+    public void init() {
+        cache = new ReactionCache(expectedEntries, falsePositiveRate, recentEntries, recentTtlSeconds * 1000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long lastId = 0;
+        long loaded = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = reactionRepository.findPairsAfter(lastId, PageRequest.of(0, WARM_BATCH));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    cache.markReacted((Long) row[1], (Long) row[2]);
+                }
+                loaded += rows.size();
+                if (rows.size() < WARM_BATCH) {
+                    break;
+                }
+            }
+            warmed = true;
+            System.out.println("Reaction filter warmed with " + loaded + " reactions");
+        } catch (Exception e) {
+            // Stay un-warmed: every read falls back to the LRU and the database
+            System.err.println("Reaction filter warm-up failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void react(Long userId, Long videoId, VideoReaction.Kind kind) {
+        // Always asks the DB: another node may have switched or removed this reaction meanwhile
+        Boolean changed = transactionTemplate.execute(status -> {
+            if (reactionRepository.insertIfAbsent(userId, videoId, kind.name()) == 1) {
+                counterService.recordVideo(videoId, counterFor(kind), 1);
+                return true;
+            }
+            if (reactionRepository.switchKind(userId, videoId, kind) == 1) {
+                counterService.recordVideo(videoId, counterFor(kind), 1);
+                counterService.recordVideo(videoId, counterFor(opposite(kind)), -1);
+                return true;
+            }
+            return false; // already reacted this way, or the video doesn't exist
+        });
+
+        if (Boolean.TRUE.equals(changed)) {
+            cache.markReacted(userId, videoId);
+            cache.putRecent(userId, videoId, kind.name());
+        }
+    }
+
+    @Override
+    public void removeReaction(Long userId, Long videoId) {
+        VideoReaction.Kind kind = reactionRepository.findKind(userId, videoId).orElse(null);
+        if (kind != null) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Guarded by kind so a concurrent switch can't make us decrement the wrong counter
+                if (reactionRepository.deleteReaction(userId, videoId, kind) == 1) {
+                    counterService.recordVideo(videoId, counterFor(kind), -1);
+                }
+            });
+        }
+        cache.putRecent(userId, videoId, null);
+    }
+
+    @Override
+    public VideoReaction.Kind getReaction(Long userId, Long videoId) {
+        if (trustBloomNegatives && warmed && !cache.mightHaveReacted(userId, videoId)) {
+            return null;
+        }
+        String cached = cache.getRecent(userId, videoId);
+        if (cached != null) {
+            return ReactionCache.NONE.equals(cached) ? null : VideoReaction.Kind.valueOf(cached);
+        }
+
+        VideoReaction.Kind kind = reactionRepository.findKind(userId, videoId).orElse(null);
+        cache.putRecent(userId, videoId, kind == null ? null : kind.name());
+        return kind;
+    }
+
+    @Override
+    public void deleteVideoReactions(Long videoId) {
+        // Stale cache entries for a deleted video are harmless: nothing can react to it anymore
+        reactionRepository.deleteByVideoId(videoId);
+    }
+
+    private static CounterService.Counter counterFor(VideoReaction.Kind kind) {
+        return kind == VideoReaction.Kind.LIKE ? CounterService.Counter.LIKES : CounterService.Counter.DISLIKES;
+    }
+
+    private static VideoReaction.Kind opposite(VideoReaction.Kind kind) {
+        return kind == VideoReaction.Kind.LIKE ? VideoReaction.Kind.DISLIKE : VideoReaction.Kind.LIKE;
+    }
+}
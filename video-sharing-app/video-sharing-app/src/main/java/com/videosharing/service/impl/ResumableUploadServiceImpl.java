@@ -0,0 +1,354 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.model.dto.ResumableUploadInitRequest;
+import com.videosharing.model.dto.ResumableUploadStatus;
+import com.videosharing.model.dto.VideoUploadRequest;
+import com.videosharing.model.entity.UploadPart;
+import com.videosharing.model.entity.UploadSession;
+import com.videosharing.model.entity.User;
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.UploadPartRepository;
+import com.videosharing.repository.UploadSessionRepository;
+import com.videosharing.repository.UserRepository;
+import com.videosharing.service.CloudStorageService;
+import com.videosharing.service.ResumableUploadService;
+import com.videosharing.service.VideoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resumable uploads on top of R2 multipart uploads: chunk {@code i} of a session
+ * is multipart part {@code i + 1}, and every acknowledged part is persisted so a
+ * client that lost its connection only re-sends the chunks reported missing.
+ *
+ * Methods are deliberately not transactional as a whole: chunk bodies can take a
+ * long time to arrive and must not hold a database connection meanwhile.
+ */
+@Service
+public class ResumableUploadServiceImpl implements ResumableUploadService {
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UploadPartRepository uploadPartRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CloudStorageService cloudStorageService;
+
+    @Autowired
+    private VideoService videoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${storage.upload.resumable.chunk-size-mb:8}")
+    private int chunkSizeMb;
+
+    @Value("${storage.upload.resumable.expiry-hours:24}")
+    private int expiryHours;
+
+    @Value("${storage.upload.max-size-mb:500}")
+    private long maxUploadSizeMb;
+
+    @Override
+    public ResumableUploadStatus initUpload(Long userId, ResumableUploadInitRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Long totalSize = request.getTotalSize();
+        if (totalSize == null || totalSize <= 0) {
+            throw new IllegalArgumentException("totalSize is required");
+        }
+        if (totalSize > maxUploadSizeMb * 1024 * 1024) {
+            throw new IllegalArgumentException("Upload exceeds the " + maxUploadSizeMb + " MB limit");
+        }
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.startsWith("video/")) {
+            throw new IllegalArgumentException("contentType must be a video/* type");
+        }
+
+        String fileName = request.getFileName() != null ? request.getFileName() : "video.mp4";
+        String safeName = fileName.replaceAll("[/\\\\]", "_");
+        String key = userId + "/" + System.currentTimeMillis() + "_" + safeName;
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUser(user);
+        session.setObjectKey(key);
+        session.setFileName(safeName);
+        session.setContentType(contentType);
+        session.setTotalSize(totalSize);
+        // R2 rejects non-final parts under 5 MB
+        session.setChunkSize(Math.max(5, chunkSizeMb) * 1024 * 1024);
+        session.setTitle(request.getTitle());
+        session.setDescription(request.getDescription());
+        session.setCategories(request.getCategories());
+        session.setLocation(request.getLocation());
+        session.setTags(request.getTags());
+        session.setR2UploadId(cloudStorageService.initiateMultipartUpload(key, contentType));
+
+        return toStatus(uploadSessionRepository.save(session));
+    }
+
+    @Override
+    public ResumableUploadStatus uploadChunk(Long userId, String uploadId, long offset, InputStream data, long size) {
+        UploadSession session = getOwnedSession(userId, uploadId);
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            throw new IllegalStateException("Upload is " + session.getStatus());
+        }
+
+        long chunkSize = session.getChunkSize();
+        if (offset < 0 || offset % chunkSize != 0 || offset >= session.getTotalSize()) {
+            throw new IllegalArgumentException("Offset " + offset + " is not a chunk boundary");
+        }
+        long expected = Math.min(chunkSize, session.getTotalSize() - offset);
+        if (size != expected) {
+            throw new IllegalArgumentException("Chunk at offset " + offset + " must be " + expected + " bytes");
+        }
+
+        int partNumber = (int) (offset / chunkSize) + 1;
+        String etag = cloudStorageService.uploadPart(session.getObjectKey(), session.getR2UploadId(), partNumber,
+                data, size);
+        recordPart(session, partNumber, etag, size);
+        uploadSessionRepository.touch(uploadId, LocalDateTime.now());
+
+        return toStatus(session);
+    }
+
+    @Override
+    public ResumableUploadStatus getStatus(Long userId, String uploadId) {
+        return toStatus(getOwnedSession(userId, uploadId));
+    }
+
+    /**
+     * Claims the session (IN_PROGRESS -> COMPLETING) so concurrent calls can't both finish it, assembles
+     * the R2 object, then inserts the video and marks the session COMPLETED in one transaction. A call
+     * that failed half way leaves the session COMPLETING; the next call picks up from whatever R2 has.
+     */
+    @Override
+    public Video completeUpload(Long userId, String uploadId) {
+        UploadSession session = getOwnedSession(userId, uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            // Repeated complete call after a dropped response
+            return videoService.getVideoById(session.getVideoId());
+        }
+        if (session.getStatus() == UploadSession.Status.IN_PROGRESS) {
+            List<UploadPart> parts = uploadPartRepository.findBySessionIdOrderByPartNumber(uploadId);
+            if (parts.size() != session.getTotalChunks()) {
+                throw new IllegalStateException("Upload is missing " + (session.getTotalChunks() - parts.size())
+                        + " chunk(s)");
+            }
+            if (uploadSessionRepository.claimForCompletion(uploadId, LocalDateTime.now()) == 0) {
+                return completedByOtherCall(userId, uploadId);
+            }
+        } else if (session.getStatus() != UploadSession.Status.COMPLETING) {
+            throw new IllegalStateException("Upload is " + session.getStatus());
+        }
+
+        // An earlier attempt may have assembled the object before failing; completing again would error
+        if (!isAssembled(session)) {
+            Map<Integer, String> etags = new HashMap<>();
+            for (UploadPart part : uploadPartRepository.findBySessionIdOrderByPartNumber(uploadId)) {
+                etags.put(part.getPartNumber(), part.getEtag());
+            }
+            cloudStorageService.completeMultipartUpload(session.getObjectKey(), session.getR2UploadId(), etags);
+        }
+        verifyAssembledSize(session);
+
+        VideoUploadRequest request = new VideoUploadRequest();
+        request.setTitle(session.getTitle());
+        request.setDescription(session.getDescription());
+        request.setCategories(session.getCategories());
+        request.setLocation(session.getLocation());
+        request.setTags(session.getTags());
+        String videoUrl = cloudStorageService.getPublicUrl(session.getObjectKey());
+
+        Video video = transactionTemplate.execute(status -> {
+            Video registered = videoService.registerUploadedVideo(userId, request, videoUrl);
+            if (uploadSessionRepository.markCompleted(uploadId, registered.getId(), LocalDateTime.now()) == 0) {
+                // Another retry got there first; drop our copy of the video
+                status.setRollbackOnly();
+                return null;
+            }
+            return registered;
+        });
+        if (video == null) {
+            return completedByOtherCall(userId, uploadId);
+        }
+        uploadPartRepository.deleteBySessionId(uploadId);
+        return video;
+    }
+
+    private Video completedByOtherCall(Long userId, String uploadId) {
+        UploadSession current = getOwnedSession(userId, uploadId);
+        if (current.getStatus() == UploadSession.Status.COMPLETED) {
+            return videoService.getVideoById(current.getVideoId());
+        }
+        throw new IllegalStateException("Upload is " + current.getStatus() + ", retry shortly");
+    }
+
+    private boolean isAssembled(UploadSession session) {
+        try {
+            cloudStorageService.headObject(session.getObjectKey());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public ResumableUploadStatus initDirectUpload(Long userId, ResumableUploadInitRequest request) {
+        ResumableUploadStatus status = initUpload(userId, request);
+        UploadSession session = getOwnedSession(userId, status.getUploadId());
+
+        List<String> urls = new ArrayList<>(status.getTotalChunks());
+        for (int part = 1; part <= status.getTotalChunks(); part++) {
+            urls.add(cloudStorageService.generatePresignedPartUploadUrl(session.getObjectKey(),
+                    session.getR2UploadId(), part));
+        }
+        status.setPartUploadUrls(urls);
+        return status;
+    }
+
+    @Override
+    public Video completeDirectUpload(Long userId, String uploadId, Map<Integer, String> partETags) {
+        UploadSession session = getOwnedSession(userId, uploadId);
+        if (session.getStatus() == UploadSession.Status.IN_PROGRESS) {
+            int totalChunks = session.getTotalChunks();
+            for (Map.Entry<Integer, String> entry : partETags.entrySet()) {
+                int partNumber = entry.getKey();
+                if (partNumber < 1 || partNumber > totalChunks) {
+                    throw new IllegalArgumentException("Unknown part number " + partNumber);
+                }
+                long offset = (long) (partNumber - 1) * session.getChunkSize();
+                long size = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+                recordPart(session, partNumber, entry.getValue(), size);
+            }
+        }
+        return completeUpload(userId, uploadId);
+    }
+
+    @Override
+    public void abortUpload(Long userId, String uploadId) {
+        abort(getOwnedSession(userId, uploadId));
+    }
+
+    @Override
+    public void cleanupStaleUploads() {
+        List<UploadSession> stale = uploadSessionRepository.findByStatusAndUpdatedAtBefore(
+                UploadSession.Status.IN_PROGRESS, LocalDateTime.now().minusHours(expiryHours));
+        for (UploadSession session : stale) {
+            abort(session);
+        }
+
+        // Claimed but never finished (client gave up after a failed complete): drop the assembled object too
+        List<UploadSession> stuck = uploadSessionRepository.findByStatusAndUpdatedAtBefore(
+                UploadSession.Status.COMPLETING, LocalDateTime.now().minusHours(expiryHours));
+        for (UploadSession session : stuck) {
+            cloudStorageService.abortMultipartUpload(session.getObjectKey(), session.getR2UploadId());
+            cloudStorageService.deleteObject(session.getObjectKey());
+            uploadPartRepository.deleteBySessionId(session.getId());
+            session.setStatus(UploadSession.Status.ABORTED);
+            session.setUpdatedAt(LocalDateTime.now());
+            uploadSessionRepository.save(session);
+        }
+    }
+
+    private void abort(UploadSession session) {
+        if (session.getStatus() != UploadSession.Status.IN_PROGRESS) {
+            return;
+        }
+        cloudStorageService.abortMultipartUpload(session.getObjectKey(), session.getR2UploadId());
+        uploadPartRepository.deleteBySessionId(session.getId());
+        session.setStatus(UploadSession.Status.ABORTED);
+        session.setUpdatedAt(LocalDateTime.now());
+        uploadSessionRepository.save(session);
+    }
+
+    // Direct-mode parts go straight from the client to R2 with no length limit on the presigned PUT and
+    // client-reported ETags, so the assembled object is measured before it becomes a video
+    private void verifyAssembledSize(UploadSession session) {
+        long size = cloudStorageService.headObject(session.getObjectKey()).getSize();
+        long maxBytes = maxUploadSizeMb * 1024 * 1024;
+        if (size == session.getTotalSize() && size <= maxBytes) {
+            return;
+        }
+        cloudStorageService.deleteObject(session.getObjectKey());
+        uploadPartRepository.deleteBySessionId(session.getId());
+        session.setStatus(UploadSession.Status.ABORTED);
+        session.setUpdatedAt(LocalDateTime.now());
+        uploadSessionRepository.save(session);
+        throw new IllegalArgumentException("Uploaded " + size + " bytes, expected " + session.getTotalSize()
+                + " (limit " + maxUploadSizeMb + " MB)");
+    }
+
+    private void recordPart(UploadSession session, int partNumber, String etag, long size) {
+        UploadPart part = uploadPartRepository.findBySessionIdAndPartNumber(session.getId(), partNumber)
+                .orElse(null);
+        if (part == null) {
+            try {
+                uploadPartRepository.save(new UploadPart(session, partNumber, etag, size));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent retry of the same chunk won the insert; overwrite its ETag below
+                part = uploadPartRepository.findBySessionIdAndPartNumber(session.getId(), partNumber)
+                        .orElseThrow(() -> e);
+            }
+        }
+        part.setEtag(etag);
+        part.setSize(size);
+        uploadPartRepository.save(part);
+    }
+
+    // Someone else's upload answers the same 404 as a missing one, so ids can't be probed
+    private UploadSession getOwnedSession(Long userId, String uploadId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+        if (!session.getUser().getId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        return session;
+    }
+
+    private ResumableUploadStatus toStatus(UploadSession session) {
+        int totalChunks = session.getTotalChunks();
+        List<Integer> missing = new ArrayList<>();
+        if (session.getStatus() == UploadSession.Status.IN_PROGRESS) {
+            BitSet received = new BitSet(totalChunks);
+            for (UploadPart part : uploadPartRepository.findBySessionIdOrderByPartNumber(session.getId())) {
+                received.set(part.getPartNumber() - 1);
+            }
+            for (int i = received.nextClearBit(0); i < totalChunks; i = received.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+        }
+
+        ResumableUploadStatus status = new ResumableUploadStatus();
+        status.setUploadId(session.getId());
+        status.setStatus(session.getStatus().name());
+        status.setTotalSize(session.getTotalSize());
+        status.setChunkSize(session.getChunkSize());
+        status.setTotalChunks(totalChunks);
+        status.setMissingChunks(missing);
+        status.setVideoId(session.getVideoId());
+        return status;
+    }
+}
@@ -0,0 +1,248 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.model.entity.User;
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.search.InvertedIndex;
+import com.videosharing.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps video search off the database when {@code search.engine=memory}.
+ *
+ * Two {@link InvertedIndex}es are maintained: a public one holding approved
+ * videos only, and an admin one holding every video plus its uploader. Both are
+ * rebuilt from {@link VideoRepository} at startup and then updated incrementally
+ * by VideoServiceImpl/AdminServiceImpl after their transactions commit. Hits are
+ * loaded by id and re-checked, so an entry that briefly lags the database can
+ * never surface a deleted or unapproved video.
+ *
+ * A rebuild fills fresh indexes off to the side. Changes committed while it is
+ * scanning are journaled and replayed onto them before they are swapped in, as
+ * SuggestionServiceImpl does for its trie.
+ */
+@Service
+public class SearchIndexServiceImpl implements SearchIndexService {
+
+    private static final int REBUILD_BATCH = 5_000;
+
+    // Term frequency multipliers per field
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int OWNER_WEIGHT = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "was", "with");
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Value("${search.engine:postgres}")
+    private String searchEngine;
+
+    private volatile Indexes indexes = new Indexes();
+
+    // Guards the index swap and the journal; non-null only while a rebuild is running
+    private final Object journalLock = new Object();
+    private List<Consumer<Indexes>> journal;
+
+    @Override
+    public boolean isEnabled() {
+        return "memory".equalsIgnoreCase(searchEngine);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (journalLock) {
+            journal = new ArrayList<>();
+        }
+        try {
+            Indexes fresh = new Indexes();
+            long lastId = 0;
+            while (true) {
+                List<Object[]> rows = videoRepository.findSearchDocumentsAfter(lastId, PageRequest.of(0, REBUILD_BATCH));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    index(fresh, lastId, (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                            (String) row[5], (Video.Status) row[6], (String) row[7], (String) row[8]);
+                }
+                if (rows.size() < REBUILD_BATCH) {
+                    break;
+                }
+            }
+            synchronized (journalLock) {
+                journal.forEach(change -> change.accept(fresh));
+                indexes = fresh;
+            }
+            System.out.println("Search index built: " + fresh.publicIndex.size() + " public / "
+                    + fresh.adminIndex.size() + " total videos in " + (System.currentTimeMillis() - started) + " ms");
+        } finally {
+            synchronized (journalLock) {
+                journal = null;
+            }
+        }
+    }
+
+    @Override
+    public void indexVideo(Video video) {
+        if (!isEnabled()) {
+            return;
+        }
+        // Capture the fields now; the entity (and its lazy user) may be detached after commit
+        Long id = video.getId();
+        String title = video.getTitle();
+        String description = video.getDescription();
+        String tags = video.getTags();
+        String location = video.getLocation();
+        String categories = video.getCategories();
+        Video.Status status = video.getStatus();
+        User user = video.getUser();
+        String username = user != null ? user.getDisplayUsername() : null;
+        String email = user != null ? user.getEmail() : null;
+
+        afterCommit(() -> apply(target -> index(target, id, title, description, tags, location, categories, status,
+                username, email)));
+    }
+
+    @Override
+    public void removeVideo(Long videoId) {
+        if (!isEnabled()) {
+            return;
+        }
+        afterCommit(() -> apply(target -> {
+            target.publicIndex.remove(videoId);
+            target.adminIndex.remove(videoId);
+        }));
+    }
+
+    @Override
+    public Page<Video> search(String query, Pageable pageable) {
+        InvertedIndex.Hits hits = indexes.publicIndex.search(tokenize(query), true,
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return toPage(hits, pageable, true);
+    }
+
+    @Override
+    public Page<Video> adminSearch(String query, Pageable pageable) {
+        InvertedIndex.Hits hits = indexes.adminIndex.search(tokenize(query), true,
+                (int) pageable.getOffset(), pageable.getPageSize());
+        return toPage(hits, pageable, false);
+    }
+
+    private void apply(Consumer<Indexes> change) {
+        synchronized (journalLock) {
+            change.accept(indexes);
+            if (journal != null) {
+                journal.add(change);
+            }
+        }
+    }
+
+    private static void index(Indexes target, Long id, String title, String description, String tags,
+            String location, String categories, Video.Status status, String username, String email) {
+        Map<String, Integer> content = new HashMap<>();
+        addTerms(content, title, TITLE_WEIGHT);
+        addTerms(content, description, 1);
+
+        Map<String, Integer> publicDoc = new HashMap<>(content);
+        addTerms(publicDoc, tags, TAG_WEIGHT);
+        addTerms(publicDoc, categories, TAG_WEIGHT);
+        addTerms(publicDoc, location, 1);
+        if (status == Video.Status.APPROVED) {
+            target.publicIndex.put(id, publicDoc);
+        } else {
+            target.publicIndex.remove(id);
+        }
+
+        addTerms(content, username, OWNER_WEIGHT);
+        addTerms(content, email, OWNER_WEIGHT);
+        target.adminIndex.put(id, content);
+    }
+
+    private Page<Video> toPage(InvertedIndex.Hits hits, Pageable pageable, boolean approvedOnly) {
+        long[] ids = hits.getIds();
+        if (ids.length == 0) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotal());
+        }
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, Video> byId = new HashMap<>();
+        for (Video video : videoRepository.findWithUserByIdIn(idList)) {
+            byId.put(video.getId(), video);
+        }
+        // Keep the index's ranking; skip anything the database no longer agrees with
+        List<Video> content = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            Video video = byId.get(id);
+            if (video != null && (!approvedOnly || video.getStatus() == Video.Status.APPROVED)) {
+                content.add(video);
+            }
+        }
+        return new PageImpl<>(content, pageable, hits.getTotal());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static final class Indexes {
+        final InvertedIndex publicIndex = new InvertedIndex();
+        final InvertedIndex adminIndex = new InvertedIndex();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,157 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.search.SuggestionTrie;
+import com.videosharing.service.SuggestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Serves /api/videos/suggestions from a {@link SuggestionTrie} of approved
+ * titles and tags. The trie is built at startup, kept current by approvals,
+ * deletions and counter flushes on this node, and rebuilt periodically
+ * (SuggestionRebuildScheduler) to pick up views flushed by other nodes.
+ *
+ * Changes made while a rebuild is scanning are journaled and replayed onto the
+ * new trie before it is swapped in, so a video rejected or deleted mid-rebuild
+ * doesn't come back with it.
+ */
+@Service
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private static final int REBUILD_BATCH = 5_000;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Value("${suggestions.top-k:10}")
+    private int topK;
+
+    private volatile SuggestionTrie trie;
+
+    // Guards the trie swap and the journal; non-null only while a rebuild is running
+    private final Object journalLock = new Object();
+    private List<Consumer<SuggestionTrie>> journal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        SuggestionTrie current = trie;
+        if (current == null) {
+            // Not built yet (or the build failed): fall back to the database
+            return videoRepository.findSuggestions(prefix, PageRequest.of(0, limit));
+        }
+        return current.suggest(prefix, limit);
+    }
+
+    @Override
+    public void addVideo(Video video) {
+        Long id = video.getId();
+        List<String> phrases = phrasesOf(video.getTitle(), video.getTags());
+        long views = video.getViews() != null ? video.getViews() : 0L;
+        afterCommit(() -> apply(t -> t.put(id, phrases, views)));
+    }
+
+    @Override
+    public void removeVideo(Long videoId) {
+        afterCommit(() -> apply(t -> t.remove(videoId)));
+    }
+
+    @Override
+    public void recordViews(Long videoId, long delta) {
+        // A flush the rebuild scan already saw gets counted twice until the next rebuild; only ranking drifts
+        apply(t -> t.addViews(videoId, delta));
+    }
+
+    private void apply(Consumer<SuggestionTrie> change) {
+        synchronized (journalLock) {
+            SuggestionTrie current = trie;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (journal != null) {
+                journal.add(change);
+            }
+        }
+    }
+
+    // Built off to the side and swapped in, so suggestions keep working during the rebuild
+    @Override
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (journalLock) {
+            journal = new ArrayList<>();
+        }
+        try {
+            SuggestionTrie fresh = new SuggestionTrie(topK);
+            long lastId = 0;
+            while (true) {
+                List<Object[]> rows = videoRepository.findSuggestionSourcesAfter(lastId, PageRequest.of(0, REBUILD_BATCH));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    Long views = (Long) row[3];
+                    fresh.put(lastId, phrasesOf((String) row[1], (String) row[2]), views != null ? views : 0L);
+                }
+                if (rows.size() < REBUILD_BATCH) {
+                    break;
+                }
+            }
+            synchronized (journalLock) {
+                journal.forEach(change -> change.accept(fresh));
+                trie = fresh;
+            }
+            System.out.println("Suggestion trie built with " + fresh.size() + " phrases in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            System.err.println("Suggestion trie rebuild failed: " + e.getMessage());
+        } finally {
+            synchronized (journalLock) {
+                journal = null;
+            }
+        }
+    }
+
+    // Title plus each tag; tags may be comma separated, hashtags or a JSON array
+    private static List<String> phrasesOf(String title, String tags) {
+        List<String> phrases = new ArrayList<>();
+        if (title != null && !title.isBlank()) {
+            phrases.add(title.trim());
+        }
+        if (tags != null) {
+            for (String tag : tags.replaceAll("[\\[\\]\"]", "").split("[,#]")) {
+                if (!tag.isBlank()) {
+                    phrases.add(tag.trim());
+                }
+            }
+        }
+        return phrases;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
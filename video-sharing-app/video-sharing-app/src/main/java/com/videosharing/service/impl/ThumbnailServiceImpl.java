@@ -0,0 +1,189 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.media.FrameExtractor;
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.service.CloudStorageService;
+import com.videosharing.service.EntityCacheService;
+import com.videosharing.service.ThumbnailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates real thumbnails off the request path: grabs one frame through the
+ * {@link FrameExtractor}, renders a JPEG per configured width and stores them at
+ * {@code thumbnails/{videoId}/{width}.jpg}. The video keeps its placeholder until
+ * the variants are uploaded.
+ */
+@Service
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private static final String KEY_PREFIX = "thumbnails/";
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CloudStorageService cloudStorageService;
+
+    @Autowired
+    private FrameExtractor frameExtractor;
+
+    @Value("${media.thumbnail.enabled:true}")
+    private boolean enabled;
+
+    @Value("${media.thumbnail.widths:320,640,1280}")
+    private int[] widths;
+
+    // Variant written to Video.thumbnailUrl
+    @Value("${media.thumbnail.default-width:640}")
+    private int defaultWidth;
+
+    @Value("${media.thumbnail.seek-seconds:1}")
+    private double seekSeconds;
+
+    @Value("${media.thumbnail.workers:2}")
+    private int workers;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        Arrays.sort(widths);
+        // Bounded queue: under a burst we drop jobs (video keeps its placeholder) instead of piling up ffmpeg runs
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(500), r -> {
+                    Thread thread = new Thread(r, "thumbnail-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void scheduleThumbnails(Long videoId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(videoId);
+                }
+            });
+        } else {
+            submit(videoId);
+        }
+    }
+
+    private void submit(Long videoId) {
+        try {
+            executor.execute(() -> generateThumbnails(videoId));
+        } catch (RejectedExecutionException e) {
+            System.err.println("Thumbnail queue full, skipping video " + videoId);
+        }
+    }
+
+    @Override
+    public void generateThumbnails(Long videoId) {
+        Video video = videoRepository.findById(videoId).orElse(null);
+        if (video == null || video.getVideoUrl() == null || video.getContentType() == Video.ContentType.IMAGE) {
+            return;
+        }
+
+        try {
+            String source = cloudStorageService.generatePresignedDownloadUrl(video.getVideoUrl());
+            BufferedImage frame = frameExtractor.extractFrame(source, seekSeconds);
+            if (frame == null) {
+                // Clip shorter than the seek offset
+                frame = frameExtractor.extractFrame(source, 0);
+            }
+            if (frame == null) {
+                System.err.println("No frame could be extracted for video " + videoId);
+                return;
+            }
+
+            String defaultUrl = null;
+            for (int width : widths) {
+                String url = cloudStorageService.uploadBytes(KEY_PREFIX + videoId + "/" + width + ".jpg",
+                        encodeJpeg(scale(frame, width)), "image/jpeg");
+                if (width == defaultWidth || defaultUrl == null) {
+                    defaultUrl = url;
+                }
+            }
+
+            // Single-column update: a moderation or transcode change committed while ffmpeg ran stays intact
+            if (videoRepository.updateThumbnailUrl(videoId, defaultUrl) > 0) {
+                entityCacheService.evictVideo(videoId);
+            }
+        } catch (Exception e) {
+            System.err.println("Thumbnail generation failed for video " + videoId + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String resolveVariantUrl(String thumbnailUrl, Integer width) {
+        if (width == null || thumbnailUrl == null || !thumbnailUrl.contains("/" + KEY_PREFIX)) {
+            return thumbnailUrl;
+        }
+        int chosen = widths[widths.length - 1];
+        for (int candidate : widths) {
+            if (candidate >= width) {
+                chosen = candidate;
+                break;
+            }
+        }
+        return thumbnailUrl.replaceFirst("/\\d+\\.jpg$", "/" + chosen + ".jpg");
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width) {
+        if (source.getWidth() <= width) {
+            width = source.getWidth();
+        }
+        int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "jpg", out)) {
+            throw new IOException("No JPEG writer available");
+        }
+        return out.toByteArray();
+    }
+}
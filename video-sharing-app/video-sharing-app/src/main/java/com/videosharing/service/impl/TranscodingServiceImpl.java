@@ -0,0 +1,229 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.media.HlsTranscoder;
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.service.CloudStorageService;
+import com.videosharing.service.EntityCacheService;
+import com.videosharing.service.TranscodingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Background HLS transcoding. Jobs are tracked on {@link Video#getTranscodeStatus()}
+ * so they survive restarts, and run on a small dedicated pool so transcoding can
+ * never take Tomcat request threads. The CPU-heavy part is the ffmpeg child
+ * process, which is capped by {@code media.hls.threads} and runs under
+ * {@code nice} (see {@link com.videosharing.media.FfmpegRunner}).
+ */
+@Service
+public class TranscodingServiceImpl implements TranscodingService {
+
+    private static final String KEY_PREFIX = "hls/";
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private CloudStorageService cloudStorageService;
+
+    @Autowired
+    private HlsTranscoder hlsTranscoder;
+
+    @Value("${media.hls.enabled:true}")
+    private boolean enabled;
+
+    @Value("${media.hls.workers:1}")
+    private int workers;
+
+    @Value("${media.hls.queue-size:50}")
+    private int queueSize;
+
+    private ExecutorService executor;
+
+    // Jobs currently queued or running on this node
+    private final Set<Long> submitted = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "hls-transcoder");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        requeuePending(true);
+    }
+
+    @Override
+    public void scheduleTranscode(Long videoId) {
+        if (!enabled) {
+            return;
+        }
+        videoRepository.updateTranscodeStatus(videoId, Video.TranscodeStatus.QUEUED);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(videoId);
+                }
+            });
+        } else {
+            submit(videoId);
+        }
+    }
+
+    @Override
+    public void requeuePending(boolean includeInterrupted) {
+        if (!enabled) {
+            return;
+        }
+        EnumSet<Video.TranscodeStatus> statuses = includeInterrupted
+                ? EnumSet.of(Video.TranscodeStatus.QUEUED, Video.TranscodeStatus.PROCESSING)
+                : EnumSet.of(Video.TranscodeStatus.QUEUED);
+        for (Video video : videoRepository.findByTranscodeStatusIn(statuses)) {
+            submit(video.getId());
+        }
+    }
+
+    private void submit(Long videoId) {
+        if (!submitted.add(videoId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    transcode(videoId);
+                } finally {
+                    submitted.remove(videoId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Stays QUEUED in the database; the periodic sweep picks it up later
+            submitted.remove(videoId);
+        }
+    }
+
+    @Override
+    public void transcode(Long videoId) {
+        Video video = videoRepository.findById(videoId).orElse(null);
+        if (video == null || video.getVideoUrl() == null || video.getContentType() == Video.ContentType.IMAGE) {
+            return;
+        }
+
+        videoRepository.updateTranscodeStatus(videoId, Video.TranscodeStatus.PROCESSING);
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory("hls-" + videoId + "-");
+            Path source = downloadSource(video.getVideoUrl(), workDir);
+            Path root = Files.createDirectory(workDir.resolve("out"));
+            hlsTranscoder.transcode(source, root);
+
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    String relative = root.relativize(file).toString().replace('\\', '/');
+                    cloudStorageService.uploadBytes(hlsKey(videoId, relative), Files.readAllBytes(file),
+                            contentTypeFor(relative));
+                }
+            }
+
+            String manifestUrl = cloudStorageService.getPublicUrl(hlsKey(videoId, HlsTranscoder.MASTER_PLAYLIST));
+            videoRepository.markTranscoded(videoId, manifestUrl);
+            entityCacheService.evictVideo(videoId); // HLS endpoints check the cached transcode status
+            System.out.println("HLS transcode finished for video " + videoId);
+        } catch (Exception e) {
+            System.err.println("HLS transcode failed for video " + videoId + ": " + e.getMessage());
+            videoRepository.updateTranscodeStatus(videoId, Video.TranscodeStatus.FAILED);
+            entityCacheService.evictVideo(videoId);
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    // One sequential GET on a fresh presigned URL: the signature is only checked when the request
+    // starts, and reading through the URL keeps the whole file out of the disk chunk cache
+    private Path downloadSource(String videoUrl, Path workDir) throws IOException {
+        Path source = workDir.resolve("source");
+        String url = cloudStorageService.generatePresignedDownloadUrl(videoUrl);
+        try (InputStream in = java.net.URI.create(url).toURL().openStream()) {
+            Files.copy(in, source);
+        }
+        return source;
+    }
+
+    @Override
+    public InputStream getHlsStream(Long videoId, String path) {
+        return cloudStorageService.getFileStream(hlsKey(videoId, path));
+    }
+
+    @Override
+    public String getHlsDownloadUrl(Long videoId, String path) {
+        return cloudStorageService.generatePresignedDownloadUrl(hlsKey(videoId, path));
+    }
+
+    private static String hlsKey(Long videoId, String path) {
+        if (path.contains("..") || !path.matches("[A-Za-z0-9_./-]+")) {
+            throw new IllegalArgumentException("Invalid HLS path: " + path);
+        }
+        return KEY_PREFIX + videoId + "/" + path;
+    }
+
+    private static String contentTypeFor(String path) {
+        if (path.endsWith(".m3u8")) {
+            return "application/vnd.apple.mpegurl";
+        }
+        if (path.endsWith(".ts")) {
+            return "video/mp2t";
+        }
+        return "application/octet-stream";
+    }
+
+    private static void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            List<Path> paths = files.sorted(Comparator.reverseOrder()).toList();
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to clean up " + dir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.videosharing.service.impl;
+
+import com.videosharing.model.entity.Video;
+import com.videosharing.repository.CommentRepository;
+import com.videosharing.repository.VideoRepository;
+import com.videosharing.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trending ranking, recomputed in the background by TrendingScheduler.
+ *
+ * Each approved video scores its weighted engagement divided by
+ * (age in hours + 2) ^ gravity, so fresh activity beats old totals. The best
+ * {@code trending.max-size} ids are kept as a primitive array sorted by score
+ * and swapped in atomically; requests only slice that array and load one page
+ * of videos by id.
+ */
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final int SCAN_BATCH = 5_000;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Value("${trending.max-size:1000}")
+    private int maxSize;
+
+    @Value("${trending.gravity:1.5}")
+    private double gravity;
+
+    @Value("${trending.weight.view:1}")
+    private double viewWeight;
+
+    @Value("${trending.weight.like:3}")
+    private double likeWeight;
+
+    @Value("${trending.weight.share:5}")
+    private double shareWeight;
+
+    @Value("${trending.weight.comment:4}")
+    private double commentWeight;
+
+    private volatile long[] rankedIds = new long[0];
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    @Override
+    public Page<Video> getTrending(Pageable pageable) {
+        long[] ids = rankedIds;
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        if (from == to) {
+            return new PageImpl<>(List.of(), pageable, ids.length);
+        }
+
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[i]);
+        }
+        Map<Long, Video> byId = new HashMap<>();
+        for (Video video : videoRepository.findWithUserByIdIn(pageIds)) {
+            byId.put(video.getId(), video);
+        }
+        // Keep the snapshot's order; skip videos deleted or unapproved since it was taken
+        List<Video> content = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            Video video = byId.get(id);
+            if (video != null && video.getStatus() == Video.Status.APPROVED) {
+                content.add(video);
+            }
+        }
+        return new PageImpl<>(content, pageable, ids.length);
+    }
+
+    @Override
+    public synchronized void refresh() {
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, Long> comments = new HashMap<>();
+            for (Object[] row : commentRepository.countByApprovedVideo()) {
+                comments.put((Long) row[0], (Long) row[1]);
+            }
+
+            // Bounded min-heap of the best maxSize (score, id) pairs seen so far
+            double[] heapScores = new double[maxSize];
+            long[] heapIds = new long[maxSize];
+            int size = 0;
+
+            LocalDateTime now = LocalDateTime.now();
+            long lastId = 0;
+            while (true) {
+                List<Object[]> rows = videoRepository.findTrendingSourcesAfter(lastId, PageRequest.of(0, SCAN_BATCH));
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    double score = score(row, comments.getOrDefault(lastId, 0L), now);
+                    if (size < maxSize) {
+                        heapScores[size] = score;
+                        heapIds[size] = lastId;
+                        siftUp(heapScores, heapIds, size++);
+                    } else if (maxSize > 0 && score > heapScores[0]) {
+                        heapScores[0] = score;
+                        heapIds[0] = lastId;
+                        siftDown(heapScores, heapIds, size);
+                    }
+                }
+                if (rows.size() < SCAN_BATCH) {
+                    break;
+                }
+            }
+
+            // Drain worst-first into the back of the array so it ends up best-first
+            long[] ranked = new long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = heapIds[0];
+                heapScores[0] = heapScores[i];
+                heapIds[0] = heapIds[i];
+                siftDown(heapScores, heapIds, i);
+            }
+            rankedIds = ranked;
+            System.out.println("Trending refreshed: " + ranked.length + " videos ranked in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            System.err.println("Trending refresh failed: " + e.getMessage());
+        }
+    }
+
+    private double score(Object[] row, long comments, LocalDateTime now) {
+        long views = row[1] != null ? (Long) row[1] : 0L;
+        int likes = row[2] != null ? (Integer) row[2] : 0;
+        int shares = row[3] != null ? (Integer) row[3] : 0;
+        LocalDateTime createdAt = (LocalDateTime) row[4];
+
+        double engagement = views * viewWeight + likes * likeWeight + shares * shareWeight + comments * commentWeight;
+        double ageHours = createdAt != null ? Math.max(0, Duration.between(createdAt, now).toMinutes() / 60.0) : 0;
+        return engagement / Math.pow(ageHours + 2, gravity);
+    }
+
+    private static void siftUp(double[] scores, long[] ids, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(scores, ids, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] scores, long[] ids, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < size && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(scores, ids, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(double[] scores, long[] ids, int a, int b) {
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
@@ -3,6 +3,7 @@ package com.videosharing.service.impl;
 import com.videosharing.model.entity.User;
 import com.videosharing.repository.UserRepository;
 import com.videosharing.service.CloudStorageService;
+import com.videosharing.service.EntityCacheService;
 import com.videosharing.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,8 +23,15 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private CloudStorageService cloudStorageService;
 
+    @Autowired
+    private EntityCacheService entityCacheService;
+
     @Override
     public User getCurrentUserProfile(Long userId) {
+        return entityCacheService.getUser(userId);
+    }
+
+    private User loadUserForUpdate(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
@@ -31,7 +39,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User updateProfile(Long userId, User updatedData) {
-        User user = getCurrentUserProfile(userId);
+        User user = loadUserForUpdate(userId);
 
         if (updatedData.getDisplayUsername() != null) {
             user.setDisplayUsername(updatedData.getDisplayUsername());
@@ -50,13 +58,15 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        entityCacheService.evictUser(userId);
+        return saved;
     }
 
     @Override
     @Transactional
     public String uploadProfilePicture(Long userId, MultipartFile file) throws IOException {
-        User user = getCurrentUserProfile(userId);
+        User user = loadUserForUpdate(userId);
 
         // Use the dedicated uploadProfilePicture method which puts it in "users/"
         String imageUrl = cloudStorageService.uploadProfilePicture(file, userId);
@@ -64,6 +74,7 @@ public class UserServiceImpl implements UserService {
         user.setProfilePictureUrl(imageUrl);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        entityCacheService.evictUser(userId);
 
         return imageUrl;
     }
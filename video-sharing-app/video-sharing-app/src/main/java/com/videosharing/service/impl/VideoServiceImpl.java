@@ -1,18 +1,33 @@
 package com.videosharing.service.impl;
 
+import com.videosharing.model.dto.FeedCursor;
+import com.videosharing.model.dto.FeedSlice;
 import com.videosharing.model.dto.VideoUploadRequest;
 import com.videosharing.model.entity.User;
 import com.videosharing.model.entity.Video;
+import com.videosharing.model.entity.VideoLabel;
+import com.videosharing.model.entity.VideoReaction;
 import com.videosharing.repository.UserRepository;
+import com.videosharing.repository.VideoLabelRepository;
 import com.videosharing.repository.VideoRepository;
 import com.videosharing.service.VideoService;
 import com.videosharing.service.CloudStorageService;
+import com.videosharing.service.CounterService;
+import com.videosharing.service.EntityCacheService;
+import com.videosharing.service.FeedCacheService;
+import com.videosharing.service.ReactionService;
+import com.videosharing.service.SearchIndexService;
+import com.videosharing.service.SuggestionService;
+import com.videosharing.service.ThumbnailService;
+import com.videosharing.service.TranscodingService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -30,9 +45,39 @@ public class VideoServiceImpl implements VideoService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private VideoLabelRepository videoLabelRepository;
+
     @Autowired
     private CloudStorageService cloudStorageService;
 
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private TranscodingService transcodingService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private FeedCacheService feedCacheService;
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @org.springframework.beans.factory.annotation.Value("${search.engine:postgres}")
+    private String searchEngine;
+
     @Override
     public Video uploadVideo(Long userId, VideoUploadRequest request, MultipartFile videoFile, MultipartFile thumbnail, String type)
             throws IOException {
@@ -70,6 +115,46 @@ public class VideoServiceImpl implements VideoService {
             }
         }
 
+        Video saved = saveNewVideo(user, request, videoUrl, thumbnailUrl, isImage);
+        if (!isImage && (thumbnail == null || thumbnail.isEmpty())) {
+            thumbnailService.scheduleThumbnails(saved.getId());
+        }
+        return saved;
+    }
+
+    // Not transactional: the R2 upload can take minutes and must not pin a DB connection
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Video uploadVideoStream(Long userId, VideoUploadRequest request, java.io.InputStream body,
+            String contentType, String fileName) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        if (contentType == null || !contentType.startsWith("video/")) {
+            throw new IllegalArgumentException("Streaming upload expects a video/* request body");
+        }
+
+        String safeName = fileName.replaceAll("[/\\\\]", "_");
+        String videoUrl = cloudStorageService.uploadVideoStream(body, contentType, safeName, userId);
+        String thumbnailUrl = cloudStorageService.generateThumbnail(videoUrl);
+
+        Video saved = saveNewVideo(user, request, videoUrl, thumbnailUrl, false);
+        thumbnailService.scheduleThumbnails(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public Video registerUploadedVideo(Long userId, VideoUploadRequest request, String videoUrl) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        String thumbnailUrl = cloudStorageService.generateThumbnail(videoUrl);
+        Video saved = saveNewVideo(user, request, videoUrl, thumbnailUrl, false);
+        thumbnailService.scheduleThumbnails(saved.getId());
+        return saved;
+    }
+
+    private Video saveNewVideo(User user, VideoUploadRequest request, String videoUrl, String thumbnailUrl,
+            boolean isImage) {
         Video video = new Video();
         video.setUser(user);
         video.setTitle(request.getTitle());
@@ -86,31 +171,100 @@ public class VideoServiceImpl implements VideoService {
         video.setCreatedAt(LocalDateTime.now());
         video.setExpiresAt(LocalDateTime.now().plusDays(6));
 
-        return videoRepository.save(video);
+        Video saved = videoRepository.save(video);
+        saveLabels(saved);
+        searchIndexService.indexVideo(saved);
+        return saved;
     }
 
 
+    private void saveLabels(Video video) {
+        List<VideoLabel> labels = new java.util.ArrayList<>();
+        for (String key : VideoLabel.splitKeys(video.getCategories())) {
+            labels.add(new VideoLabel(video.getId(), VideoLabel.Kind.CATEGORY, key));
+        }
+        for (String key : VideoLabel.splitKeys(video.getTags())) {
+            labels.add(new VideoLabel(video.getId(), VideoLabel.Kind.TAG, key));
+        }
+        videoLabelRepository.saveAll(labels);
+    }
+
     @Override
-    public Page<Video> getFeed(Pageable pageable, String category, String location) {
+    public Page<Video> getFeed(Pageable pageable, String category, String location, String tag) {
         // Clean up "all" category if passed
         if ("all".equalsIgnoreCase(category)) {
             category = null;
         }
-        return videoRepository.findByFilters(Video.Status.APPROVED, category, location, pageable);
+        return videoRepository.findByFilters(Video.Status.APPROVED, VideoLabel.normalizeKey(category),
+                VideoLabel.normalizeKey(tag), VideoLabel.normalizeKey(location), pageable);
+    }
+
+    @Override
+    public FeedSlice<Video> getFeedAfter(String cursor, int size, String category, String location, String tag) {
+        if ("all".equalsIgnoreCase(category)) {
+            category = null;
+        }
+        FeedCursor after = FeedCursor.decode(cursor);
+        Slice<Video> slice = videoRepository.findFeedAfter(Video.Status.APPROVED,
+                VideoLabel.normalizeKey(category), VideoLabel.normalizeKey(tag), VideoLabel.normalizeKey(location),
+                after.getCreatedAt(), after.getId(), PageRequest.of(0, size));
+
+        List<Video> items = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            Video last = items.get(items.size() - 1);
+            next = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedSlice<>(items, next, slice.hasNext());
     }
 
     @Override
     public Page<Video> search(String query, Pageable pageable) {
-        return videoRepository.searchVideos(query, pageable);
+        if (searchIndexService.isEnabled()) {
+            return searchIndexService.search(query, pageable);
+        }
+        if (!"postgres".equalsIgnoreCase(searchEngine)) {
+            return videoRepository.searchVideos(query, pageable);
+        }
+        String tsquery = toPrefixTsQuery(query);
+        if (tsquery == null) {
+            return Page.empty(pageable);
+        }
+        return videoRepository.fullTextSearch(tsquery, pageable);
+    }
+
+    // "funny cat vid" -> "funny & cat & vid:*" so results show up while the last word is still being typed.
+    // Only letters and digits survive, so user input can never produce tsquery syntax errors.
+    private String toPrefixTsQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+        List<String> terms = new java.util.ArrayList<>();
+        for (String token : query.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+        int last = terms.size() - 1;
+        terms.set(last, terms.get(last) + ":*");
+        return String.join(" & ", terms);
     }
 
     @Override
     public List<String> getSuggestions(String query) {
-        return videoRepository.findSuggestions(query, PageRequest.of(0, 10)); // Top 10 suggestions
+        return suggestionService.suggest(query, 10); // Top 10 suggestions
     }
 
     @Override
     public Video getVideoById(Long videoId) {
+        // Shared cached copy: fine for reads, but write paths below load their own managed entity
+        return entityCacheService.getVideo(videoId);
+    }
+
+    private Video loadVideoForUpdate(Long videoId) {
         return videoRepository.findById(videoId)
                 .orElseThrow(() -> new RuntimeException("Video not found"));
     }
@@ -123,48 +277,59 @@ public class VideoServiceImpl implements VideoService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // ReactionService manages its own transaction
     public void likeVideo(Long userId, Long videoId) {
-        Video video = getVideoById(videoId);
-        video.setLikesCount(video.getLikesCount() + 1);
-        videoRepository.save(video);
+        reactionService.react(userId, videoId, VideoReaction.Kind.LIKE);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // ReactionService manages its own transaction
     public void dislikeVideo(Long userId, Long videoId) {
-        Video video = getVideoById(videoId);
-        video.setDislikesCount(video.getDislikesCount() + 1);
-        videoRepository.save(video);
+        reactionService.react(userId, videoId, VideoReaction.Kind.DISLIKE);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // ReactionService manages its own transaction
     public void unlikeVideo(Long userId, Long videoId) {
-        Video video = getVideoById(videoId);
-
-        if (video.getLikesCount() > 0) {
-            video.setLikesCount(video.getLikesCount() - 1);
-        }
-        if (video.getDislikesCount() > 0) {
-            video.setDislikesCount(video.getDislikesCount() - 1);
-        }
+        reactionService.removeReaction(userId, videoId);
+    }
 
-        videoRepository.save(video);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // usually answered from memory
+    public String getUserReaction(Long userId, Long videoId) {
+        VideoReaction.Kind kind = reactionService.getReaction(userId, videoId);
+        return kind == null ? "NONE" : kind.name();
     }
 
     @Override
     public void approveVideo(Long videoId) {
-        Video video = getVideoById(videoId);
+        Video video = loadVideoForUpdate(videoId);
         video.setStatus(Video.Status.APPROVED);
         // Expiration Logic: 6 days from APPROVAL date (as per user request "after approval... auto delete in 6 day")
         video.setExpiresAt(LocalDateTime.now().plusDays(6));
         videoRepository.save(video);
+        entityCacheService.evictVideo(videoId);
+        searchIndexService.indexVideo(video);
+        suggestionService.addVideo(video);
+        feedCacheService.invalidate();
+
+        // Only approved videos are worth transcoding
+        if (video.getContentType() != Video.ContentType.IMAGE && video.getVideoUrl() != null
+                && video.getTranscodeStatus() != Video.TranscodeStatus.READY) {
+            transcodingService.scheduleTranscode(videoId);
+        }
     }
 
     @Override
     public void rejectVideo(Long videoId, String reason) {
-        Video video = getVideoById(videoId);
+        Video video = loadVideoForUpdate(videoId);
         video.setStatus(Video.Status.REJECTED);
         video.setRejectionReason(reason);
         videoRepository.save(video);
+        entityCacheService.evictVideo(videoId);
+        searchIndexService.indexVideo(video);
+        suggestionService.removeVideo(videoId);
+        feedCacheService.invalidate();
     }
 
     @Override
@@ -174,12 +339,18 @@ public class VideoServiceImpl implements VideoService {
 
     @Override
     public void deleteVideo(Long videoId) {
-        Video video = getVideoById(videoId);
+        Video video = loadVideoForUpdate(videoId);
 
         // delete from cloud
         cloudStorageService.deleteVideo(video.getVideoUrl());
 
+        reactionService.deleteVideoReactions(videoId);
+        videoLabelRepository.deleteByVideoId(videoId);
         videoRepository.delete(video);
+        entityCacheService.evictVideo(videoId);
+        searchIndexService.removeVideo(videoId);
+        suggestionService.removeVideo(videoId);
+        feedCacheService.invalidate();
     }
 
     @Override
@@ -192,42 +363,53 @@ public class VideoServiceImpl implements VideoService {
 
     @Override
     public java.io.InputStream getVideoStream(Long videoId) {
-        Video video = getVideoById(videoId);
-        String videoUrl = video.getVideoUrl();
-        // Extract Key from URL: https://endpoint/bucket/KEY
-        // Format: endpoint + "/" + bucketName + "/" + fileName
-        // We can just assume the last part is the key if we split by bucketName
-        // Or simpler: The stored URL structure in Upload was: endpoint + "/" +
-        // bucketName + "/" + fileName
+        String key = getVideoKey(videoId);
+        try {
+            return cloudStorageService.getFileStream(key);
+        } catch (Exception e) {
+            throw new RuntimeException("Error streaming video", e);
+        }
+    }
 
-        // Let's try to extract cleanly
+    @Override
+    public java.io.InputStream getVideoStream(Long videoId, long start, long end) {
+        String key = getVideoKey(videoId);
         try {
-            // Quick hack: split by "/" and take the last 2 parts? No, key might have
-            // slashes (userId/...)
-            // The upload logic: fileName = userId + "/" + timestamp + "_" + originalName
-            // URL = endpoint + "/" + bucketName + "/" + fileName
+            return cloudStorageService.getFileStream(key, start, end);
+        } catch (Exception e) {
+            throw new RuntimeException("Error streaming video range", e);
+        }
+    }
 
-            // Find bucketName index
-            // Better: inject bucketName or just try to parse
+    @Override
+    public long getVideoLength(Long videoId) {
+        return cloudStorageService.getFileLength(getVideoKey(videoId));
+    }
 
+    // Extract Key from URL: https://endpoint/bucket/KEY
+    // The upload logic: fileName = userId + "/" + timestamp + "_" + originalName
+    // URL = endpoint + "/" + bucketName + "/" + fileName, so the key may contain slashes
+    private String getVideoKey(Long videoId) {
+        Video video = getVideoById(videoId);
+        String videoUrl = video.getVideoUrl();
+        if (videoUrl != null) {
             int bucketIndex = videoUrl.indexOf("/vedio-sharing/");
             if (bucketIndex != -1) {
-                String key = videoUrl.substring(bucketIndex + "/vedio-sharing/".length());
-                return cloudStorageService.getFileStream(key);
+                return videoUrl.substring(bucketIndex + "/vedio-sharing/".length());
             }
-
-            // Fallback or error
-            throw new RuntimeException("Could not parse video URL key: " + videoUrl);
-
-        } catch (Exception e) {
-            throw new RuntimeException("Error streaming video", e);
         }
+        throw new RuntimeException("Could not parse video URL key: " + videoUrl);
     }
 
     @Override
     public java.io.InputStream getThumbnailStream(Long videoId) {
+        return getThumbnailStream(videoId, null);
+    }
+
+    @Override
+    public java.io.InputStream getThumbnailStream(Long videoId, Integer width) {
         Video video = getVideoById(videoId);
-        String url = video.getThumbnailUrl();
+        String url = thumbnailService.resolveVariantUrl(video.getThumbnailUrl(), width);
 
         if (url == null || url.contains("placehold.co")) {
             try {
@@ -249,6 +431,21 @@ public class VideoServiceImpl implements VideoService {
         }
     }
 
+    @Override
+    public String getVideoDownloadUrl(Long videoId) {
+        return cloudStorageService.generatePresignedDownloadUrl(getVideoKey(videoId));
+    }
+
+    @Override
+    public String getThumbnailDownloadUrl(Long videoId) {
+        Video video = getVideoById(videoId);
+        String url = video.getThumbnailUrl();
+        if (url == null || url.contains("placehold.co")) {
+            return url;
+        }
+        return cloudStorageService.generatePresignedDownloadUrl(url);
+    }
+
     @Override
     public void addComment(Long userId, Long videoId, String text) {
         User user = userRepository.findById(userId)
@@ -273,17 +470,15 @@ public class VideoServiceImpl implements VideoService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // buffered, no DB work
     public void incrementShareCount(Long videoId) {
-        Video video = getVideoById(videoId);
-        video.setShareCount(video.getShareCount() + 1);
-        videoRepository.save(video);
+        counterService.recordVideo(videoId, CounterService.Counter.SHARES, 1);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // buffered, no DB work
     public void incrementViewCount(Long videoId) {
-        Video video = getVideoById(videoId);
-        video.setViews(video.getViews() + 1);
-        videoRepository.save(video);
+        counterService.recordVideo(videoId, CounterService.Counter.VIEWS, 1);
     }
 
     @Autowired
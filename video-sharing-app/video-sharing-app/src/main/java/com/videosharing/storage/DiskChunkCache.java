@@ -0,0 +1,323 @@
+package com.videosharing.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Bounded local disk cache of fixed-size object chunks. Objects are split into
+ * chunks of {@code storage.cache.chunk-size-kb}; each chunk is fetched once from
+ * the backing store, written to its own file and then served with positional
+ * {@link FileChannel} reads. Least recently used chunks are deleted once the
+ * cache grows past {@code storage.cache.max-size-mb}.
+ *
+ * Chunks and lengths are assumed immutable; writers that overwrite a key must
+ * call {@link #invalidate(String)} afterwards.
+ */
+@Component
+public class DiskChunkCache {
+
+    private static final int MAX_LENGTH_ENTRIES = 10_000;
+
+    @Value("${storage.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.cache.dir:cache/r2}")
+    private String cacheDir;
+
+    @Value("${storage.cache.max-size-mb:2048}")
+    private long maxSizeMb;
+
+    @Value("${storage.cache.chunk-size-kb:4096}")
+    private int chunkSizeKb;
+
+    private Path root;
+    private long maxBytes;
+    private long chunkSize;
+    private long totalBytes;
+
+    // chunk file name -> size, in access order (eldest first)
+    private final LinkedHashMap<String, Long> chunks = new LinkedHashMap<>(256, 0.75f, true);
+
+    // Stored objects are immutable (keys carry an upload timestamp), so lengths never go stale
+    private final Map<String, Long> lengths = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_LENGTH_ENTRIES;
+        }
+    };
+
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    /** Supplies the inclusive byte range {@code start..end} of an object from the backing store. */
+    @FunctionalInterface
+    public interface RangeLoader {
+        InputStream load(String key, long start, long end);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(cacheDir).toAbsolutePath();
+        maxBytes = maxSizeMb * 1024 * 1024;
+        chunkSize = chunkSizeKb * 1024L;
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(root);
+
+        // Re-adopt chunks left over from a previous run, oldest first so LRU order survives restarts
+        try (Stream<Path> files = Files.list(root)) {
+            files.sorted(Comparator.comparingLong(DiskChunkCache::lastModified)).forEach(file -> {
+                String name = file.getFileName().toString();
+                try {
+                    if (name.contains(".tmp-")) {
+                        Files.deleteIfExists(file);
+                    } else {
+                        register(name, Files.size(file));
+                    }
+                } catch (IOException e) {
+                    System.err.println("Chunk cache: skipping " + file + ": " + e.getMessage());
+                }
+            });
+        }
+        System.out.println("Chunk cache ready at " + root + " (" + totalBytes / (1024 * 1024) + " MB in use)");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Long getCachedLength(String key) {
+        synchronized (lengths) {
+            return lengths.get(key);
+        }
+    }
+
+    public void putLength(String key, long length) {
+        synchronized (lengths) {
+            lengths.put(key, length);
+        }
+    }
+
+    /**
+     * Opens the inclusive range {@code start..end} of an object of the given total
+     * length, loading any missing chunks through {@code loader}.
+     */
+    public InputStream open(String key, long length, long start, long end, RangeLoader loader) {
+        return new ChunkInputStream(key, length, start, end, loader);
+    }
+
+    /** Drops every cached chunk of the given object. */
+    public void invalidate(String key) {
+        String prefix = hash(key) + ".";
+        synchronized (lengths) {
+            lengths.remove(key);
+        }
+        synchronized (chunks) {
+            Iterator<Map.Entry<String, Long>> it = chunks.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    totalBytes -= entry.getValue();
+                    it.remove();
+                    deleteQuietly(root.resolve(entry.getKey()));
+                }
+            }
+        }
+    }
+
+    private FileChannel openChunk(String key, long index, long length, RangeLoader loader) throws IOException {
+        String name = hash(key) + "." + index;
+        Path file = root.resolve(name);
+
+        boolean cached;
+        synchronized (chunks) {
+            cached = chunks.get(name) != null; // touches the entry for LRU
+        }
+        if (cached) {
+            try {
+                return FileChannel.open(file, StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                // Evicted between the lookup and the open; fall through and reload
+            }
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(name, mine);
+        if (existing != null) {
+            try {
+                return FileChannel.open(existing.join(), StandardOpenOption.READ);
+            } catch (NoSuchFileException e) {
+                return openChunk(key, index, length, loader);
+            }
+        }
+
+        try {
+            long chunkStart = index * chunkSize;
+            long chunkEnd = Math.min(chunkStart + chunkSize, length) - 1;
+            Path tmp = root.resolve(name + ".tmp-" + UUID.randomUUID());
+            try (InputStream in = loader.load(key, chunkStart, chunkEnd)) {
+                Files.copy(in, tmp);
+            }
+            long size = Files.size(tmp);
+            if (size != chunkEnd - chunkStart + 1) {
+                deleteQuietly(tmp);
+                throw new IOException("Short read for " + key + " chunk " + index + ": " + size + " bytes");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // Open before registering so an immediate eviction can't pull the file out from under us
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            register(name, size);
+            mine.complete(file);
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(name, mine);
+        }
+    }
+
+    private void register(String name, long size) {
+        synchronized (chunks) {
+            Long previous = chunks.put(name, size);
+            if (previous != null) {
+                totalBytes -= previous;
+            }
+            totalBytes += size;
+
+            Iterator<Map.Entry<String, Long>> it = chunks.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                if (eldest.getKey().equals(name)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue();
+                it.remove();
+                deleteQuietly(root.resolve(eldest.getKey()));
+            }
+        }
+    }
+
+    private static String hash(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Chunk cache: failed to delete " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Walks the chunks covering a byte range, opening each one lazily. */
+    private class ChunkInputStream extends InputStream {
+
+        private final String key;
+        private final long length;
+        private final RangeLoader loader;
+        private long position;
+        private final long end;
+
+        private FileChannel channel;
+        private long channelIndex = -1;
+
+        ChunkInputStream(String key, long length, long start, long end, RangeLoader loader) {
+            this.key = key;
+            this.length = length;
+            this.loader = loader;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position > end) {
+                return -1;
+            }
+            long index = position / chunkSize;
+            if (index != channelIndex) {
+                closeChannel();
+                channel = openChunk(key, index, length, loader);
+                channelIndex = index;
+            }
+            long offsetInChunk = position - index * chunkSize;
+            long chunkRemaining = Math.min(chunkSize - offsetInChunk, end - position + 1);
+            int toRead = (int) Math.min(len, chunkRemaining);
+            int n = channel.read(ByteBuffer.wrap(b, off, toRead), offsetInChunk);
+            if (n == -1) {
+                throw new IOException("Unexpected end of cached chunk " + index + " for " + key);
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, end - position + 1));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeChannel();
+        }
+
+        private void closeChannel() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+                channelIndex = -1;
+            }
+        }
+    }
+}
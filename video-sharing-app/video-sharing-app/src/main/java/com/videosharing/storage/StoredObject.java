@@ -0,0 +1,25 @@
+package com.videosharing.storage;
+
+/**
+ * Size and content type of an object as R2 reports them, independent of
+ * anything the client claimed when it uploaded.
+ */
+public class StoredObject {
+
+    private final long size;
+    private final String contentType;
+
+    public StoredObject(long size, String contentType) {
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // Null when the uploader sent none
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,65 @@
+package com.videosharing.util;
+
+import com.videosharing.model.entity.Role;
+
+import java.util.Date;
+
+/**
+ * Verified contents of a token issued by {@link JwtUtil}. Access tokens carry
+ * the user's id, email and role; refresh tokens only the user id.
+ */
+public class JwtClaims {
+
+    public enum Type {
+        ACCESS, REFRESH
+    }
+
+    private final Type type;
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final String keyId;
+    private final Date issuedAt;
+    private final Date expiresAt;
+
+    public JwtClaims(Type type, Long userId, String email, Role role, String keyId, Date issuedAt, Date expiresAt) {
+        this.type = type;
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.keyId = keyId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    // Null for refresh tokens
+    public String getEmail() {
+        return email;
+    }
+
+    // Null for refresh tokens
+    public Role getRole() {
+        return role;
+    }
+
+    // Signing key the token was verified with; null for tokens issued before key ids were added
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -1,84 +1,242 @@
 package com.videosharing.util;
 
 
+import com.videosharing.model.entity.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
 
+/**
+ * Issues and verifies HS512 tokens.
+ *
+ * Keys are held in a small keyring: new tokens are signed with the current
+ * key and carry its id in the {@code kid} header, and verification picks the
+ * key by that header, so a rotated-out key keeps verifying the tokens it
+ * signed. The parser is built once and resolves keys from the keyring on each
+ * parse, so rotating never rebuilds it. Keys come from {@code jwt.secret}
+ * (plus {@code jwt.previous-keys}) and, when {@code jwt.keyring-file} is set,
+ * from that file, which {@link #reloadKeyring()} re-reads when it changes.
+ */
 @Component
 public class JwtUtil {
-    
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final int MIN_HS512_KEY_BYTES = 64;
+
     @Value("${jwt.secret}")
     private String secret;
-    
+
+    // Id of the jwt.secret key; tokens issued before key ids existed verify with it
+    @Value("${jwt.key-id:primary}")
+    private String keyId;
+
+    // Retired keys still accepted for verification, as "kid:secret,kid:secret"
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
+    // Optional properties file: "current=<kid>" plus one "<kid>=<secret>" line per key
+    @Value("${jwt.keyring-file:}")
+    private String keyringFile;
+
     @Value("${jwt.expiration.ms}")
     private Long jwtExpirationMs;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+
+    @Value("${jwt.refresh-expiration.ms:604800000}")
+    private Long refreshExpirationMs;
+
+    private volatile Keyring keyring;
+    private JwtParser parser;
+    private long keyringFileModified;
+
+    @PostConstruct
+    public void init() {
+        keyring = new Keyring(keyId, configuredKeys());
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyring.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+        reloadKeyring();
     }
-    
+
     public String generateAccessToken(Long userId, String email, Object role) {
+        Keyring ring = keyring;
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        
+
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, ring.currentKid)
                 .setSubject(email)
                 .claim("userId", userId)
                 .claim("role", role.toString())
-                .setIssuedAt(new Date())
+                .claim(TYPE_CLAIM, "access")
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(ring.currentKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
-    
+
     public String generateRefreshToken(Long userId) {
+        Keyring ring = keyring;
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + (jwtExpirationMs * 7)); // 7 days
-        
+        Date expiryDate = new Date(now.getTime() + refreshExpirationMs);
+
+        // Random jti: tokens are stored by hash, so two issued in the same second must still differ
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, ring.currentKid)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
-                .setIssuedAt(new Date())
+                .claim(TYPE_CLAIM, "refresh")
+                .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(ring.currentKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
-    
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-                
-        return claims.getSubject();
+
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
     }
-    
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-                
-        return Long.valueOf(claims.get("userId").toString());
+
+    /**
+     * Verifies the signature and expiry in a single parse and returns the typed claims.
+     *
+     * @throws JwtException if the token is malformed, expired, signed with an unknown key or
+     *                      missing required claims
+     * @throws IllegalArgumentException if the token is null or blank
+     */
+    public JwtClaims parseAndValidate(String token) {
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        Object role = claims.get("role");
+        Object userId = claims.get("userId");
+
+        // Tokens issued before the "typ" claim: only access tokens have a role
+        JwtClaims.Type type;
+        Object typeClaim = claims.get(TYPE_CLAIM);
+        if (typeClaim != null) {
+            type = "refresh".equals(typeClaim) ? JwtClaims.Type.REFRESH : JwtClaims.Type.ACCESS;
+        } else {
+            type = role != null ? JwtClaims.Type.ACCESS : JwtClaims.Type.REFRESH;
+        }
+
+        try {
+            if (type == JwtClaims.Type.ACCESS) {
+                if (!(userId instanceof Number) || role == null || claims.getSubject() == null) {
+                    throw new MalformedJwtException("Access token is missing userId/role/subject");
+                }
+                return new JwtClaims(type, ((Number) userId).longValue(), claims.getSubject(),
+                        Role.valueOf(role.toString()), jws.getHeader().getKeyId(), claims.getIssuedAt(),
+                        claims.getExpiration());
+            }
+            return new JwtClaims(type, Long.valueOf(claims.getSubject()), null, null, jws.getHeader().getKeyId(),
+                    claims.getIssuedAt(), claims.getExpiration());
+        } catch (IllegalArgumentException e) {
+            // Unknown role or non-numeric subject
+            throw new MalformedJwtException("Invalid token claims: " + e.getMessage(), e);
+        }
     }
-    
-    public boolean validateToken(String token) {
+
+    /**
+     * Re-reads jwt.keyring-file if it changed since the last load. Keys from the file are
+     * added to the configured ones and its "current" entry becomes the signing key. A file
+     * that can't be read or names no usable current key leaves the keyring untouched.
+     */
+    public synchronized void reloadKeyring() {
+        if (keyringFile == null || keyringFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(keyringFile);
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (MalformedJwtException | ExpiredJwtException | UnsupportedJwtException |
-                 IllegalArgumentException ex) {
-            // Log exception
-            return false;
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == keyringFileModified) {
+                return;
+            }
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(path)) {
+                properties.load(in);
+            }
+
+            Map<String, SecretKey> keys = configuredKeys();
+            String current = properties.getProperty("current", keyId).trim();
+            for (String kid : properties.stringPropertyNames()) {
+                if (!"current".equals(kid)) {
+                    keys.put(kid.trim(), key(properties.getProperty(kid).trim()));
+                }
+            }
+            keyring = new Keyring(current, keys);
+            keyringFileModified = modified;
+            System.out.println("JWT keyring loaded: " + keys.size() + " keys, signing with '" + current + "'");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("JWT keyring file not loaded, keeping current keys: " + e.getMessage());
+        }
+    }
+
+    private Map<String, SecretKey> configuredKeys() {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(keyId, key(secret));
+        if (previousKeys != null && !previousKeys.isBlank()) {
+            for (String entry : previousKeys.split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalStateException("jwt.previous-keys entries must be kid:secret");
+                }
+                keys.putIfAbsent(entry.substring(0, colon).trim(), key(entry.substring(colon + 1).trim()));
+            }
+        }
+        return keys;
+    }
+
+    private static SecretKey key(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Immutable snapshot; rotation swaps the whole keyring so readers never see a half-updated one
+    private final class Keyring {
+        final String currentKid;
+        final Map<String, SecretKey> keys;
+
+        Keyring(String currentKid, Map<String, SecretKey> keys) {
+            SecretKey current = keys.get(currentKid);
+            if (current == null) {
+                throw new IllegalStateException("No JWT key with id '" + currentKid + "'");
+            }
+            if (current.getEncoded().length < MIN_HS512_KEY_BYTES) {
+                throw new IllegalStateException("JWT signing key '" + currentKid + "' is shorter than "
+                        + MIN_HS512_KEY_BYTES + " bytes, too weak for HS512");
+            }
+            this.currentKid = currentKid;
+            this.keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+        }
+
+        SecretKey currentKey() {
+            return keys.get(currentKid);
+        }
+
+        SecretKey verificationKey(String kid) {
+            SecretKey key = keys.get(kid != null ? kid : keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+            }
+            return key;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.videosharing.util;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 
 public class OtpUtil {
@@ -10,4 +12,13 @@ public class OtpUtil {
     public static String generateOtp() {
         return String.valueOf(100000 + random.nextInt(900000));
     }
+
+    // Constant-time comparison, so response timing doesn't leak how many leading digits matched
+    public static boolean matches(String expected, String given) {
+        if (expected == null || given == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                given.trim().getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,40 @@
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization=true),
+-- so only objects JPA can't express belong here. Every statement must be re-runnable.
+
+-- Full-text search: weighted document maintained by PostgreSQL itself, searched through a GIN index
+ALTER TABLE videos ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(tags, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(categories, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(location, '')), 'C') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'D')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_videos_search_vector ON videos USING GIN (search_vector);
+
+-- Backfill normalized feed filter keys for rows written before they existed (same rules as VideoLabel.normalizeKey)
+UPDATE videos
+SET location_key = left(nullif(btrim(ltrim(lower(btrim(regexp_replace(location, '\s+', ' ', 'g'))), '#')), ''), 100)
+WHERE location IS NOT NULL AND location_key IS NULL;
+
+INSERT INTO video_labels (video_id, kind, label_key)
+SELECT DISTINCT src.id, src.kind, src.label_key FROM (
+    SELECT v.id, 'CATEGORY' AS kind,
+           left(nullif(btrim(ltrim(lower(btrim(regexp_replace(part, '\s+', ' ', 'g'))), '#')), ''), 100) AS label_key
+    FROM videos v, regexp_split_to_table(regexp_replace(v.categories, '[\[\]"]', '', 'g'), ',') AS part
+    WHERE NOT EXISTS (SELECT 1 FROM video_labels l WHERE l.video_id = v.id)
+    UNION ALL
+    SELECT v.id, 'TAG',
+           left(nullif(btrim(ltrim(lower(btrim(regexp_replace(part, '\s+', ' ', 'g'))), '#')), ''), 100)
+    FROM videos v, regexp_split_to_table(regexp_replace(v.tags, '[\[\]"]', '', 'g'), ',') AS part
+    WHERE NOT EXISTS (SELECT 1 FROM video_labels l WHERE l.video_id = v.id)
+) src
+WHERE src.label_key IS NOT NULL
+ON CONFLICT DO NOTHING;
+
+-- Refresh tokens are stored as SHA-256 hashes now; rows from before that can never be matched again
+DELETE FROM refresh_tokens WHERE token_hash IS NULL;
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS token;
+
+-- Hibernate only writes the enum CHECK when it creates the table; older tables don't know COMPLETING
+ALTER TABLE upload_sessions DROP CONSTRAINT IF EXISTS upload_sessions_status_check;
@@ -0,0 +1,90 @@
+package com.videosharing.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CounterBufferTest {
+
+    @Test
+    void drainReturnsSummedDeltasAndForgetsThem() {
+        CounterBuffer buffer = new CounterBuffer(2);
+        buffer.add(1L, 0, 3);
+        buffer.add(1L, 0, 2);
+        buffer.add(1L, 1, -1);
+        buffer.add(2L, 1, 4);
+
+        Map<Long, long[]> drained = buffer.drain();
+
+        assertArrayEquals(new long[] { 5, -1 }, drained.get(1L));
+        assertArrayEquals(new long[] { 0, 4 }, drained.get(2L));
+        assertTrue(buffer.drain().isEmpty());
+    }
+
+    @Test
+    void restorePutsDeltasBackForTheNextDrain() {
+        CounterBuffer buffer = new CounterBuffer(2);
+        buffer.add(1L, 0, 3);
+        Map<Long, long[]> failed = buffer.drain();
+        buffer.add(1L, 0, 1);
+
+        buffer.restore(failed);
+
+        assertArrayEquals(new long[] { 4, 0 }, buffer.drain().get(1L));
+    }
+
+    @Test
+    void concurrentAddsAreNeitherLostNorCountedTwiceAcrossDrains() throws Exception {
+        CounterBuffer buffer = new CounterBuffer(1);
+        int writers = 8;
+        int addsPerWriter = 50_000;
+        long[] total = new long[3];
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < addsPerWriter; i++) {
+                    buffer.add((long) (i % 3), 0, 1); // a few hot ids, as with popular videos
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        Thread drainer = new Thread(() -> {
+            while (writing.get()) {
+                buffer.drain().forEach((id, d) -> total[id.intValue()] += d[0]);
+            }
+        });
+        drainer.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        writing.set(false);
+        drainer.join();
+        buffer.drain().forEach((id, d) -> total[id.intValue()] += d[0]);
+
+        assertEquals((long) writers * addsPerWriter, total[0] + total[1] + total[2]);
+        for (int id = 0; id < 3; id++) {
+            long expected = (long) writers * ((addsPerWriter + 2 - id) / 3);
+            assertEquals(expected, total[id], "id " + id);
+        }
+    }
+}
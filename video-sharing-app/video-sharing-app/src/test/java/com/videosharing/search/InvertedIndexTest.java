@@ -0,0 +1,126 @@
+package com.videosharing.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InvertedIndexTest {
+
+    @Test
+    void ranksHigherTermFrequencyFirst() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("cat", 1, "video", 3));
+        index.put(2, Map.of("cat", 3, "video", 1));
+        index.put(3, Map.of("dog", 4));
+
+        InvertedIndex.Hits hits = index.search(List.of("cat"), false, 0, 10);
+
+        assertArrayEquals(new long[] { 2, 1 }, hits.getIds());
+        assertEquals(2, hits.getTotal());
+    }
+
+    @Test
+    void rareTermsOutweighCommonOnes() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("music", 1, "live", 1));
+        index.put(2, Map.of("music", 1, "rare", 1));
+        index.put(3, Map.of("music", 1, "live", 1));
+
+        InvertedIndex.Hits hits = index.search(List.of("live", "rare"), false, 0, 10);
+
+        assertEquals(2L, hits.getIds()[0]);
+        assertEquals(3, hits.getTotal());
+    }
+
+    @Test
+    void scoresAccumulateAcrossQueryTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("red", 1, "car", 1));
+        index.put(2, Map.of("red", 1, "bus", 1));
+        index.put(3, Map.of("blue", 1, "car", 1));
+
+        InvertedIndex.Hits hits = index.search(List.of("red", "car"), false, 0, 10);
+
+        assertEquals(1L, hits.getIds()[0]);
+        assertEquals(3, hits.getTotal());
+    }
+
+    @Test
+    void lastTermMatchesAsPrefix() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("football", 1));
+        index.put(2, Map.of("footage", 1));
+        index.put(3, Map.of("soccer", 1));
+
+        assertEquals(2, index.search(List.of("foot"), true, 0, 10).getTotal());
+        assertEquals(0, index.search(List.of("foot"), false, 0, 10).getTotal());
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, Map.of("news", (int) id));
+        }
+
+        InvertedIndex.Hits page = index.search(List.of("news"), false, 1, 2);
+
+        assertArrayEquals(new long[] { 4, 3 }, page.getIds());
+        assertEquals(5, page.getTotal());
+        assertEquals(0, index.search(List.of("news"), false, 10, 2).getIds().length);
+    }
+
+    @Test
+    void removedDocumentsNoLongerMatch() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("cat", 1));
+        index.put(2, Map.of("cat", 1));
+
+        index.remove(1);
+
+        assertArrayEquals(new long[] { 2 }, index.search(List.of("cat"), false, 0, 10).getIds());
+        assertEquals(1, index.size());
+        index.remove(2);
+        assertEquals(0, index.search(List.of("cat"), false, 0, 10).getTotal());
+    }
+
+    @Test
+    void putReplacesExistingDocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("old", 1));
+        index.put(1, Map.of("new", 1));
+
+        assertEquals(0, index.search(List.of("old"), false, 0, 10).getTotal());
+        assertArrayEquals(new long[] { 1 }, index.search(List.of("new"), false, 0, 10).getIds());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void reusedDocNumbersDoNotLeakOldTerms() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, Map.of("alpha", 1));
+        index.put(2, Map.of("beta", 1));
+        index.remove(1);
+        index.put(3, Map.of("gamma", 1)); // takes over doc number of key 1
+
+        assertEquals(0, index.search(List.of("alpha"), false, 0, 10).getTotal());
+        assertArrayEquals(new long[] { 3 }, index.search(List.of("gamma"), false, 0, 10).getIds());
+        assertArrayEquals(new long[] { 2 }, index.search(List.of("beta"), false, 0, 10).getIds());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void handlesManyDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 0; id < 5000; id++) {
+            index.put(id, id % 2 == 0 ? Map.of("even", 1, "all", 1) : Map.of("all", 1));
+        }
+
+        assertEquals(2500, index.search(List.of("even"), false, 0, 10).getTotal());
+        assertEquals(5000, index.search(List.of("all", "even"), false, 0, 3).getTotal());
+    }
+}
@@ -0,0 +1,127 @@
+package com.videosharing.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    @Test
+    void matchesPrefixOfAnyWord() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("Funny Cat Video"), 10);
+
+        assertEquals(List.of("Funny Cat Video"), trie.suggest("fun", 10));
+        assertEquals(List.of("Funny Cat Video"), trie.suggest("cat v", 10));
+        assertEquals(List.of("Funny Cat Video"), trie.suggest("VID", 10));
+        assertTrue(trie.suggest("dog", 10).isEmpty());
+        assertTrue(trie.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void trailingSpaceRequiresAnotherWord() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("cat"), 5);
+        trie.put(2, List.of("cat video"), 1);
+
+        assertEquals(List.of("cat video"), trie.suggest("cat ", 10));
+    }
+
+    @Test
+    void ranksByViewsAndKeepsTopK() {
+        SuggestionTrie trie = new SuggestionTrie(2);
+        trie.put(1, List.of("cooking pasta"), 5);
+        trie.put(2, List.of("cooking rice"), 50);
+        trie.put(3, List.of("cooking soup"), 20);
+
+        assertEquals(List.of("cooking rice", "cooking soup"), trie.suggest("cook", 10));
+        assertEquals(List.of("cooking rice"), trie.suggest("cook", 1));
+        assertEquals(List.of("cooking pasta"), trie.suggest("pasta", 10));
+    }
+
+    @Test
+    void sharedPhraseScoresSumOfVideos() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("music"), 30);
+        trie.put(2, List.of("musical"), 40);
+        trie.put(3, List.of("music"), 20);
+
+        assertEquals(List.of("music", "musical"), trie.suggest("mus", 10));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void addViewsRaisesAndLowersRanking() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("travel vlog"), 10);
+        trie.put(2, List.of("travel guide"), 20);
+
+        trie.addViews(1, 15);
+        assertEquals(List.of("travel vlog", "travel guide"), trie.suggest("trav", 10));
+
+        trie.addViews(1, -20);
+        assertEquals(List.of("travel guide", "travel vlog"), trie.suggest("trav", 10));
+
+        trie.addViews(99, 1000); // unknown id is ignored
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void lowerDemotesPhraseOutOfTopK() {
+        SuggestionTrie trie = new SuggestionTrie(1);
+        trie.put(1, List.of("game review"), 100);
+        trie.put(2, List.of("game trailer"), 50);
+
+        trie.addViews(1, -90);
+
+        assertEquals(List.of("game trailer"), trie.suggest("game", 10));
+    }
+
+    @Test
+    void removeDropsPhrasesOnlyFromTheLastVideo() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("news", "sports"), 10);
+        trie.put(2, List.of("news"), 5);
+
+        trie.remove(1);
+        assertEquals(List.of("news"), trie.suggest("n", 10));
+        assertTrue(trie.suggest("sp", 10).isEmpty());
+
+        trie.remove(2);
+        assertTrue(trie.suggest("n", 10).isEmpty());
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void putReplacesPreviousPhrases() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("old title", "tag"), 10);
+        trie.put(1, List.of("new title"), 10);
+
+        assertTrue(trie.suggest("old", 10).isEmpty());
+        assertTrue(trie.suggest("tag", 10).isEmpty());
+        assertEquals(List.of("new title"), trie.suggest("title", 10));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void duplicatePhrasesOfOneVideoCountOnce() {
+        SuggestionTrie trie = new SuggestionTrie(10);
+        trie.put(1, List.of("dance", " dance ", ""), 10);
+
+        trie.remove(1);
+
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    void normalizeCollapsesPunctuation() {
+        assertEquals("hello world", SuggestionTrie.normalize("Hello,  --World"));
+        assertEquals("hello world ", SuggestionTrie.normalize("Hello World!!"));
+        assertEquals("cat ", SuggestionTrie.normalize("Cat "));
+        assertEquals("", SuggestionTrie.normalize(null));
+    }
+}